@@ -0,0 +1,122 @@
+package utils.Collections;
+
+import java.util.Random;
+
+/**
+ * Measures Table interpolation, bicubic next to bilinear, one point at a time and in batches.
+ * <p>
+ * Charts are sampled from a smooth function, {@code 100 sin(row / 5) cos(column / 4)} over 33 rows and 21 columns,
+ * either complete or with about 3% of the values untested (NaN), as real charts tend to have.
+ * Each combination is warmed up for half a second, then timed for at least another half second and {@value #MIN_ITERATIONS} passes
+ * over the same {@value #POINTS} random points. Reported per combination:
+ * <ul>
+ * <li>mean time per point,</li>
+ * <li>mean absolute error against the function the chart was sampled from, over the points that interpolated to a number,</li>
+ * <li>how many of the points interpolated to NaN,</li>
+ * <li>for batches, how many times faster than one point at a time the same table was.</li>
+ * </ul>
+ * Run with {@code java utils.Collections.TableBenchmark}.
+ *
+ * @author Alexander Paul
+ */
+public class TableBenchmark {
+
+	private static final int ROWS = 33, COLUMNS = 21;
+	private static final int POINTS = 1 << 16;
+
+	/**
+	 * Time spent warming each combination up, and again measuring it.
+	 */
+	private static final long NANOS_PER_PHASE = 500_000_000;
+	private static final int MIN_ITERATIONS = 5;
+
+	/**
+	 * Charts to interpolate.
+	 */
+	enum Chart {
+		COMPLETE,
+		/**
+		 * About one value in 33 untested.
+		 */
+		UNTESTED;
+
+		float[][] generate(final Random random) {
+			final float[][] values = new float[ROWS][COLUMNS];
+			for(int row = 0; row < ROWS; row++) {
+				for(int column = 0; column < COLUMNS; column++) {
+					values[row][column] = this == UNTESTED && random.nextInt(33) == 0 ? Float.NaN : (float) function(row, column);
+				}
+			}
+			return values;
+		}
+	}
+
+	/**
+	 * Ways of calling the table.
+	 */
+	enum Access {
+		SCALAR, BATCH
+	}
+
+	private static double function(final double row, final double column) {
+		return 100 * Math.sin(row / 5) * Math.cos(column / 4);
+	}
+
+	public static void main(String[] args) {
+		final Random random = new Random(ROWS * COLUMNS);
+		final float[] rows = new float[POINTS], columns = new float[POINTS];
+		for(int i = 0; i < POINTS; i++) {
+			rows[i] = random.nextFloat() * (ROWS - 1);
+			columns[i] = random.nextFloat() * (COLUMNS - 1);
+		}
+
+		System.out.printf("%-13s %-9s %-7s %10s %14s %10s %8s%n", "interpolation", "chart", "access", "ns/point", "mean |error|", "NaN", "speedup");
+		for(Chart chart : Chart.values()) {
+			final float[][] values = chart.generate(new Random(chart.ordinal()));
+			for(Table.Interpolation interpolation : Table.Interpolation.values()) {
+				final Table table = Table.builder().withData(values).withInterpolation(interpolation)
+						.rowMin(0).rowMax(ROWS - 1).rowInterval(1).columnMin(0).columnMax(COLUMNS - 1).columnInterval(1).build();
+				double scalarNanosPerPoint = Double.NaN;
+				for(Access access : Access.values()) {
+					final float[] out = new float[POINTS];
+					final double nanosPerPoint = measure(table, access, rows, columns, out);
+					if(access == Access.SCALAR) scalarNanosPerPoint = nanosPerPoint;
+
+					double error = 0;
+					int nan = 0;
+					for(int i = 0; i < POINTS; i++) {
+						if(Float.isNaN(out[i])) nan++;
+						else error += Math.abs(out[i] - function(rows[i], columns[i]));
+					}
+					System.out.printf("%-13s %-9s %-7s %10.2f %14.4f %10d %8s%n", interpolation, chart, access, nanosPerPoint,
+							nan == POINTS ? Double.NaN : error / (POINTS - nan), nan,
+							access == Access.SCALAR ? "" : String.format("%.2fx", scalarNanosPerPoint / nanosPerPoint));
+				}
+			}
+		}
+	}
+
+	private static double measure(final Table table, final Access access, final float[] rows, final float[] columns, final float[] out) {
+		final long warmUpEnd = System.nanoTime() + NANOS_PER_PHASE;
+		for(int i = 0; i < MIN_ITERATIONS || System.nanoTime() < warmUpEnd; i++) run(table, access, rows, columns, out);
+
+		long nanos = 0;
+		int iterations = 0;
+		while(iterations < MIN_ITERATIONS || nanos < NANOS_PER_PHASE) {
+			iterations++;
+			final long start = System.nanoTime();
+			run(table, access, rows, columns, out);
+			nanos += System.nanoTime() - start;
+		}
+		return (double) nanos / iterations / POINTS;
+	}
+
+	private static void run(final Table table, final Access access, final float[] rows, final float[] columns, final float[] out) {
+		if(access == Access.BATCH) {
+			table.interpolate(rows, columns, out);
+			return;
+		}
+		for(int i = 0; i < POINTS; i++) out[i] = table.interpolate(rows[i], columns[i]);
+	}
+
+}
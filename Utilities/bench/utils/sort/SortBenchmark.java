@@ -0,0 +1,208 @@
+package utils.sort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures every Sort implementation across list sizes, input distributions and comparator costs.
+ * <p>
+ * Each combination is warmed up for half a second, then timed for at least another half second and {@value #MIN_ITERATIONS} iterations,
+ * each sorting a fresh copy of the same input.
+ * Copying happens outside the timed region. Every result is checked for order, which also keeps the JIT from discarding the work.
+ * Reported per combination:
+ * <ul>
+ * <li>mean time per sort,</li>
+ * <li>throughput in millions of elements sorted per second,</li>
+ * <li>bytes allocated per sort by the sorting thread, read from {@code com.sun.management.ThreadMXBean} where the JVM supports it.
+ * Allocation on other threads, as by ParallelMergeSort's pool, isn't counted.</li>
+ * </ul>
+ * Run with the sizes to measure as arguments, e.g. {@code java utils.sort.SortBenchmark 1000 100000 1000000}.
+ * Quadratic sorts are only run up to {@value #QUADRATIC_LIMIT} elements.
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ */
+public class SortBenchmark
+{
+	private static final int QUADRATIC_LIMIT = 10_000;
+	private static final int[] DEFAULT_SIZES = {1_000, 100_000, 1_000_000};
+
+	/**
+	 * Time spent warming each combination up, and again measuring it.
+	 */
+	private static final long NANOS_PER_PHASE = 500_000_000;
+	private static final int MIN_ITERATIONS = 5;
+
+	/**
+	 * Orders the input lists are generated in.
+	 */
+	enum Distribution
+	{
+		RANDOM, SORTED, REVERSED,
+		/**
+		 * Only 16 distinct values.
+		 */
+		DUPLICATES,
+		/**
+		 * Ascending to the middle, then descending.
+		 */
+		ORGAN_PIPE,
+		/**
+		 * Sorted, but for a random batch of 1% appended at the end.
+		 */
+		NEARLY_SORTED;
+
+		List<Integer> generate(int size, Random random)
+		{
+			List<Integer> list = new ArrayList<>(size);
+			for(int i = 0; i < size; i++)
+			{
+				switch(this)
+				{
+				case RANDOM: list.add(random.nextInt()); break;
+				case SORTED: list.add(i); break;
+				case REVERSED: list.add(size - i); break;
+				case DUPLICATES: list.add(random.nextInt(16)); break;
+				case ORGAN_PIPE: list.add(Math.min(i, size - i)); break;
+				case NEARLY_SORTED: list.add(i < size - size / 100 ? i : random.nextInt(size)); break;
+				}
+			}
+			return list;
+		}
+	}
+
+	/**
+	 * Costs of comparing two elements.
+	 */
+	enum Cost
+	{
+		CHEAP(Integer::compare),
+		/**
+		 * Orders by a key derived from each element through 32 rounds of mixing, as comparators computing keys from records do.
+		 * The mix is a bijection, so the order is total.
+		 */
+		EXPENSIVE((a, b) -> Integer.compare(mix(a), mix(b)));
+
+		final Comparator<Integer> comparator;
+
+		Cost(Comparator<Integer> comparator)
+		{
+			this.comparator = comparator;
+		}
+
+		private static int mix(int value)
+		{
+			for(int round = 0; round < 32; round++)
+			{
+				value *= 0x9E3779B9;
+				value ^= value >>> 16;
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * @return Sorts to measure, by name.
+	 */
+	static Map<String, Supplier<Sort<Integer>>> sorts()
+	{
+		Map<String, Supplier<Sort<Integer>>> sorts = new LinkedHashMap<>();
+		sorts.put("Quicksort", Quicksort::new);
+		sorts.put("ParallelMergeSort", ParallelMergeSort::new);
+		sorts.put("TimSort", TimSort::new);
+		sorts.put("BubbleSort", BubbleSort::new);
+		sorts.put("SelectionSort", SelectionSort::new);
+		return sorts;
+	}
+
+	private static boolean isQuadratic(String name)
+	{
+		return name.equals("BubbleSort") || name.equals("SelectionSort");
+	}
+
+	public static void main(String[] args)
+	{
+		int[] sizes = args.length == 0 ? DEFAULT_SIZES : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported() ? (com.sun.management.ThreadMXBean) threads : null;
+		if(allocations != null) allocations.setThreadAllocatedMemoryEnabled(true);
+
+		System.out.printf("%-18s %-13s %-9s %9s %14s %12s %16s%n", "sort", "input", "compare", "size", "ns/sort", "Melem/s", "bytes/sort");
+		for(Map.Entry<String, Supplier<Sort<Integer>>> sort : sorts().entrySet())
+		{
+			for(int size : sizes)
+			{
+				if(isQuadratic(sort.getKey()) && size > QUADRATIC_LIMIT) continue;
+				for(Distribution distribution : Distribution.values())
+				{
+					for(Cost cost : Cost.values())
+					{
+						Result result = measure(sort.getValue().get(), distribution.generate(size, new Random(size)), cost.comparator, allocations);
+						System.out.printf("%-18s %-13s %-9s %9d %14.0f %12.2f %16s%n", sort.getKey(), distribution, cost, size,
+								result.nanosPerSort, size / result.nanosPerSort * 1e3,
+								result.bytesPerSort < 0 ? "n/a" : String.format("%.0f", result.bytesPerSort));
+					}
+				}
+			}
+		}
+	}
+
+	private static final class Result
+	{
+		final double nanosPerSort;
+		final double bytesPerSort;
+
+		Result(double nanosPerSort, double bytesPerSort)
+		{
+			this.nanosPerSort = nanosPerSort;
+			this.bytesPerSort = bytesPerSort;
+		}
+	}
+
+	private static Result measure(Sort<Integer> sort, List<Integer> input, Comparator<Integer> comparator, com.sun.management.ThreadMXBean allocations)
+	{
+		long warmUpEnd = System.nanoTime() + NANOS_PER_PHASE;
+		for(int i = 0; i < MIN_ITERATIONS || System.nanoTime() < warmUpEnd; i++) run(sort, input, comparator);
+
+		long threadId = Thread.currentThread().getId();
+		long nanos = 0;
+		long bytes = 0;
+		int iterations = 0;
+		while(iterations < MIN_ITERATIONS || nanos < NANOS_PER_PHASE)
+		{
+			iterations++;
+			List<Integer> list = new ArrayList<>(input);
+			long bytesBefore = allocations == null ? 0 : allocations.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			sort.sort(list, comparator);
+			nanos += System.nanoTime() - start;
+			if(allocations != null) bytes += allocations.getThreadAllocatedBytes(threadId) - bytesBefore;
+			check(list, comparator);
+		}
+		return new Result((double) nanos / iterations, allocations == null ? -1 : (double) bytes / iterations);
+	}
+
+	private static void run(Sort<Integer> sort, List<Integer> input, Comparator<Integer> comparator)
+	{
+		List<Integer> list = new ArrayList<>(input);
+		sort.sort(list, comparator);
+		check(list, comparator);
+	}
+
+	private static void check(List<Integer> list, Comparator<Integer> comparator)
+	{
+		for(int i = 1; i < list.size(); i++)
+		{
+			if(comparator.compare(list.get(i - 1), list.get(i)) > 0) throw new AssertionError("Not sorted at index " + i);
+		}
+	}
+}
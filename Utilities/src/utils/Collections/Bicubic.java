@@ -0,0 +1,176 @@
+package utils.Collections;
+
+/**
+ * Precomputed bicubic patches of a Table, one per cell between four neighbouring values.
+ * <p>
+ * Each patch is the cubic polynomial {@code p(t, u) = sum of a[i][j] * t^i * u^j} that matches the values and the
+ * row, column and cross derivatives at the cell's corners, where t and u run from 0 to 1 across the cell.
+ * Derivatives are finite differences in index space: central where both neighbours are numbers,
+ * one-sided at the edges or next to a NaN. A cell with a NaN corner has no patch, marked by NaN coefficients.
+ * <p>
+ * A point on an interval lies on the shared edge of the cells either side of it, whose patches agree along that edge,
+ * so it's evaluated in whichever of them has a patch. Where none does, {@link #evaluate} returns NaN and the Table falls back to bilinear,
+ * which still has an answer on the clean edges and corners of a cell next to an untested region.
+ * <p>
+ * The 16 coefficients of every cell are computed once when the Table is built,
+ * so a query is a cell look up and a constant-time polynomial evaluation.
+ *
+ * @author Alexander Paul
+ */
+final class Bicubic {
+
+	/**
+	 * Hermite basis: maps the values and derivatives at 0 and 1 to the coefficients of a cubic.
+	 */
+	private static final float[][] BASIS = {
+			{ 1,  0,  0,  0},
+			{ 0,  0,  1,  0},
+			{-3,  3, -2, -1},
+			{ 2, -2,  1,  1}
+	};
+
+	private static final int COEFFICIENTS = 16;
+
+	/**
+	 * Coefficients of every cell, row-major by cell, 16 per cell.
+	 */
+	private final float[] coefficients;
+
+	/**
+	 * Number of cells in each row of cells.
+	 */
+	private final int cellWidth;
+
+	private final int cellHeight;
+
+	/**
+	 * @param values to fit; needs at least two rows and two columns.
+	 */
+	Bicubic(final TableStorage values) {
+		final int height = values.height();
+		final int width = values.width();
+		this.cellHeight = height - 1;
+		this.cellWidth = width - 1;
+
+		final float[][] value = new float[height][width];
+		for(int row = 0; row < height; row++) for(int col = 0; col < width; col++) value[row][col] = values.get(row, col);
+
+		final float[][] rowSlope = new float[height][width];
+		final float[][] columnSlope = new float[height][width];
+		final float[][] crossSlope = new float[height][width];
+		for(int row = 0; row < height; row++) {
+			for(int col = 0; col < width; col++) {
+				rowSlope[row][col] = slope(value, row, col, true);
+				columnSlope[row][col] = slope(value, row, col, false);
+			}
+		}
+		for(int row = 0; row < height; row++) for(int col = 0; col < width; col++) crossSlope[row][col] = slope(rowSlope, row, col, false);
+
+		this.coefficients = new float[cellHeight * cellWidth * COEFFICIENTS];
+		final float[][] corners = new float[4][4];
+		final float[][] product = new float[4][4];
+
+		for(int row = 0; row < cellHeight; row++) {
+			for(int col = 0; col < cellWidth; col++) {
+				for(int i = 0; i < 2; i++) {
+					for(int j = 0; j < 2; j++) {
+						corners[i][j] = value[row + i][col + j];
+						corners[i][j + 2] = columnSlope[row + i][col + j];
+						corners[i + 2][j] = rowSlope[row + i][col + j];
+						corners[i + 2][j + 2] = crossSlope[row + i][col + j];
+					}
+				}
+
+				//a = BASIS * corners * BASIS^T
+				for(int i = 0; i < 4; i++) {
+					for(int j = 0; j < 4; j++) {
+						float sum = 0;
+						for(int k = 0; k < 4; k++) sum += BASIS[i][k] * corners[k][j];
+						product[i][j] = sum;
+					}
+				}
+
+				final int offset = (row * cellWidth + col) * COEFFICIENTS;
+				final boolean undefined = Float.isNaN(corners[0][0]) || Float.isNaN(corners[0][1]) || Float.isNaN(corners[1][0]) || Float.isNaN(corners[1][1]);
+				for(int i = 0; i < 4; i++) {
+					for(int j = 0; j < 4; j++) {
+						float sum = 0;
+						for(int k = 0; k < 4; k++) sum += product[i][k] * BASIS[j][k];
+						coefficients[offset + i * 4 + j] = undefined ? Float.NaN : sum;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return finite difference of the grid at row and column, along rows or columns, skipping neighbours that are NaN.
+	 */
+	private static float slope(final float[][] grid, final int row, final int col, final boolean alongRows) {
+		final int length = alongRows ? grid.length : grid[row].length;
+		final int index = alongRows ? row : col;
+		final float center = grid[row][col];
+		final float before = index > 0 ? (alongRows ? grid[row - 1][col] : grid[row][col - 1]) : Float.NaN;
+		final float after = index < length - 1 ? (alongRows ? grid[row + 1][col] : grid[row][col + 1]) : Float.NaN;
+
+		if(!Float.isNaN(before) && !Float.isNaN(after)) return (after - before) / 2;
+		if(!Float.isNaN(after) && !Float.isNaN(center)) return after - center;
+		if(!Float.isNaN(before) && !Float.isNaN(center)) return center - before;
+		return 0;
+	}
+
+	/**
+	 * @param rowIndex of the interval at or below the row.
+	 * @param rowOnInterval whether the row lies precisely on that interval.
+	 * @param rowRatio position of the row between its intervals, from 0 to 1; ignored on an interval.
+	 * @param columnIndex of the interval at or below the column.
+	 * @param columnOnInterval whether the column lies precisely on that interval.
+	 * @param columnRatio position of the column between its intervals, from 0 to 1; ignored on an interval.
+	 * @return value of a patch through the point, or NaN if no cell the point lies in has one.
+	 */
+	float evaluate(final int rowIndex, final boolean rowOnInterval, final float rowRatio, 
+			final int columnIndex, final boolean columnOnInterval, final float columnRatio) {
+		//The cell starting at the row's interval, then, on the interval, the cell ending there.
+		if(rowIndex < cellHeight) {
+			final float value = evaluate(rowIndex, rowOnInterval ? 0 : rowRatio, columnIndex, columnOnInterval, columnRatio);
+			if(!rowOnInterval || !Float.isNaN(value)) return value;
+		}
+		if(rowOnInterval && rowIndex > 0) return evaluate(rowIndex - 1, 1, columnIndex, columnOnInterval, columnRatio);
+		return Float.NaN;
+	}
+
+	/**
+	 * Same as {@link #evaluate(int, boolean, float, int, boolean, float)} along the columns, within one row of cells.
+	 */
+	private float evaluate(final int row, final float t, final int columnIndex, final boolean columnOnInterval, final float columnRatio) {
+		if(columnIndex < cellWidth) {
+			final float value = patch(row, t, columnIndex, columnOnInterval ? 0 : columnRatio);
+			if(!columnOnInterval || !Float.isNaN(value)) return value;
+		}
+		if(columnOnInterval && columnIndex > 0) return patch(row, t, columnIndex - 1, 1);
+		return Float.NaN;
+	}
+
+	/**
+	 * @return value of the patch of the cell at row and column, or NaN if it has none.
+	 */
+	private float patch(final int row, final float t, final int col, final float u) {
+		final float[] a = coefficients;
+		final int offset = (row * cellWidth + col) * COEFFICIENTS;
+
+		final float b0 = ((a[offset + 3] * u + a[offset + 2]) * u + a[offset + 1]) * u + a[offset];
+		final float b1 = ((a[offset + 7] * u + a[offset + 6]) * u + a[offset + 5]) * u + a[offset + 4];
+		final float b2 = ((a[offset + 11] * u + a[offset + 10]) * u + a[offset + 9]) * u + a[offset + 8];
+		final float b3 = ((a[offset + 15] * u + a[offset + 14]) * u + a[offset + 13]) * u + a[offset + 12];
+
+		return ((b3 * t + b2) * t + b1) * t + b0;
+	}
+
+	/**
+	 * @return approximate number of bytes the coefficients occupy.
+	 */
+	long sizeInBytes() {
+		return 16 + (long) coefficients.length * Float.BYTES;
+	}
+
+}
@@ -0,0 +1,246 @@
+package utils.Collections;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Data Object used to store table properties such as min, max, and interval values that constrain a table's rows and columns.
+ * <blockquote>
+ * Example: Rows for elevation from 0ft to 16,000ft with 500ft intervals.
+ * 			Columns for temperature from -45 degree to 55 degrees with 5 degree intervals.
+ * </blockquote>
+ * Fixed intervals compute their indices arithmetically from min and interval, then nudge them against the stored intervals,
+ * so a look up never boxes a float or relies on exact float-key equality of a map.
+ * <p>
+ * Irregular breakpoints (dense near sea level, sparse at altitude) are searched with a primitive binary search instead.
+ * Those can optionally remember the last segment they found, so queries arriving in spatial order usually skip the search.
+ *
+ * @author Alexander Paul
+ */
+final class Boundary {
+
+	final float min;
+	final float max;
+
+	/**
+	 * Fixed interval between breakpoints, or 0 if the breakpoints were given explicitly.
+	 */
+	final float interval;
+
+	/**
+	 * Reciprocal of the interval, used to estimate an index without dividing.
+	 */
+	private final float inverseInterval;
+
+	/**
+	 * Whether the estimate from min and inverseInterval is already the floor index of every value within min and max, needing no correction.
+	 */
+	private final boolean exact;
+
+	/**
+	 * Whether the estimate of every value within min and max is its floor index or the one after it, so a single step down corrects it.
+	 */
+	private final boolean nearlyExact;
+
+	/**
+	 * Interval values in ascending order. Fixed intervals are accumulated the same way the table has always been keyed (min, min + interval, ...).
+	 */
+	final float[] intervals;
+
+	/**
+	 * Whether explicit breakpoints remember the last segment found.
+	 */
+	private final boolean hinted;
+
+	/**
+	 * Index of the last segment found. Shared between threads without synchronization on purpose:
+	 * a stale or torn hint is only ever a miss, because every hint is verified before it's used.
+	 * It's only written when the segment changes, so threads querying the same region keep its cache line shared instead of bouncing it.
+	 */
+	private int lastSegment;
+
+	/**
+	 * Fixed intervals from min to max.
+	 * @param min first interval.
+	 * @param max upper bound of the intervals.
+	 * @param interval between consecutive intervals.
+	 */
+	Boundary(final float min, final float max, final float interval) {
+		this.min = min;
+		this.max = max;
+		this.interval = interval;
+		this.inverseInterval = 1 / interval;
+		this.hinted = false;
+
+		int count = 0;
+
+		for(float mapIndex = min; mapIndex <= max; mapIndex += interval) count++;
+
+		intervals = new float[count];
+
+		int tableIndex = 0;
+
+		for(float mapIndex = min; mapIndex <= max; mapIndex += interval) {
+			intervals[tableIndex] = mapIndex;
+			tableIndex++;
+		}
+
+		//The estimate never decreases as the value increases, so within a segment it's bounded by its estimates at either end.
+		boolean exact = true, nearlyExact = true;
+		for(int index = 0; index < count; index++) {
+			final int atInterval = estimate(intervals[index]);
+			final int belowNext = index == count - 1 ? index : estimate(Math.nextDown(intervals[index + 1]));
+			exact &= atInterval == index && belowNext == index;
+			nearlyExact &= atInterval >= index && belowNext <= index + 1;
+		}
+		this.exact = exact;
+		this.nearlyExact = nearlyExact;
+	}
+
+	/**
+	 * Explicit, possibly irregular, breakpoints.
+	 * @param breakpoints in strictly ascending order; copied.
+	 * @param hinted whether to remember the last segment found.
+	 * @throws IllegalArgumentException if there are no breakpoints, or they aren't strictly ascending numbers.
+	 */
+	Boundary(final float[] breakpoints, final boolean hinted) {
+		if(breakpoints.length == 0) throw new IllegalArgumentException("At least one breakpoint is required.");
+		for(int i = 0; i < breakpoints.length; i++) {
+			if(Float.isNaN(breakpoints[i]) || i > 0 && breakpoints[i] <= breakpoints[i - 1])
+				throw new IllegalArgumentException("Breakpoints must be strictly ascending numbers.");
+		}
+		this.intervals = breakpoints.clone();
+		this.min = intervals[0];
+		this.max = intervals[intervals.length - 1];
+		this.interval = 0;
+		this.inverseInterval = 0;
+		this.hinted = hinted;
+		this.exact = false;
+		this.nearlyExact = false;
+	}
+
+	/**
+	 * @param value within min and max.
+	 * @return index of value computed from min and inverseInterval alone, clamped to the intervals; may be off by rounding.
+	 */
+	private int estimate(final float value) {
+		return (int) Math.min(Math.max((value - min) * inverseInterval, 0f), intervals.length - 1);
+	}
+
+	/**
+	 * @return whether the intervals are fixed rather than explicit breakpoints.
+	 */
+	boolean isUniform() {
+		return interval != 0;
+	}
+
+	/**
+	 * For fixed intervals, the estimate can only be off by one due to accumulated rounding, so at most a step or two is taken to correct it.
+	 * Explicit breakpoints first try the hinted segment and the one after it, then fall back to a binary search.
+	 * @param value within min and max.
+	 * @return index of the greatest interval less than or equal to value.
+	 */
+	int floorIndex(final float value) {
+		final int last = intervals.length - 1;
+
+		if(interval != 0) {
+			int index = (int) ((value - min) * inverseInterval);
+			if(index > last) index = last;
+			if(index < 0) index = 0;
+			while(index > 0 && intervals[index] > value) index--;
+			while(index < last && intervals[index + 1] <= value) index++;
+			return index;
+		}
+
+		if(hinted) {
+			final int hint = lastSegment;
+			if(intervals[hint] <= value) {
+				if(hint == last || value < intervals[hint + 1]) return hint;
+				if(hint + 1 == last || value < intervals[hint + 2]) return lastSegment = hint + 1;
+			}
+		}
+
+		int low = 0;
+		int high = last;
+		while(low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if(intervals[mid] <= value) low = mid;
+			else high = mid - 1;
+		}
+
+		if(hinted && lastSegment != low) lastSegment = low;
+		return low;
+	}
+
+	/**
+	 * @param value within min and max.
+	 * @param floorIndex of value given by {@link #floorIndex(float)}.
+	 * @return index of the least interval greater than or equal to value, or the last interval if value lies past it.
+	 */
+	int ceilingIndex(final float value, final int floorIndex) {
+		return intervals[floorIndex] == value || floorIndex == intervals.length - 1 ? floorIndex : floorIndex + 1;
+	}
+
+	/**
+	 * Batch form of {@link #floorIndex(float)} and {@link #ceilingIndex(float, int)}, with the ratio of each value between the two.
+	 * For fixed intervals a first, branch-free pass estimates every value's position, clamped to the intervals, which the JIT can vectorize;
+	 * the values are copied into ratios first so it reads and writes the same index, since a loop over two arrays at different offsets isn't vectorized.
+	 * The estimates are converted to indices, then corrected only as far as construction found they can be off:
+	 * not at all, by a single step down, or by stepping to the interval as {@link #floorIndex(float)} does.
+	 * A last pass picks the ceiling and ratio of each value.
+	 * @param values within min and max.
+	 * @param from index of the first value.
+	 * @param count number of values.
+	 * @param lower to store the floor index of each value in, from 0.
+	 * @param higher to store the ceiling index of each value in, from 0.
+	 * @param ratios to store each value's ratio between its floor and ceiling in; 1 when they're the same interval.
+	 */
+	void locate(final float[] values, final int from, final int count, final int[] lower, final int[] higher, final float[] ratios) {
+		final float[] intervals = this.intervals;
+		final int last = intervals.length - 1;
+
+		if(interval != 0) {
+			final float min = this.min, inverseInterval = this.inverseInterval, lastIndex = last;
+			System.arraycopy(values, from, ratios, 0, count);
+			for(int i = 0; i < count; i++) ratios[i] = Math.min(Math.max((ratios[i] - min) * inverseInterval, 0f), lastIndex);
+			for(int i = 0; i < count; i++) lower[i] = (int) ratios[i];
+			if(nearlyExact && !exact) {
+				for(int i = 0; i < count; i++) {
+					final int estimate = lower[i];
+					lower[i] = intervals[estimate] > values[from + i] ? estimate - 1 : estimate;
+				}
+			} else if(!nearlyExact) {
+				for(int i = 0; i < count; i++) {
+					final float value = values[from + i];
+					int floor = lower[i];
+					while(floor > 0 && intervals[floor] > value) floor--;
+					while(floor < last && intervals[floor + 1] <= value) floor++;
+					lower[i] = floor;
+				}
+			}
+		} else {
+			for(int i = 0; i < count; i++) lower[i] = floorIndex(values[from + i]);
+		}
+
+		for(int i = 0; i < count; i++) {
+			final float value = values[from + i];
+			final int floor = lower[i];
+			final float lowerInterval = intervals[floor];
+			final int ceiling = lowerInterval == value || floor == last ? floor : floor + 1;
+			final float higherInterval = intervals[ceiling];
+			higher[i] = ceiling;
+			ratios[i] = floor == ceiling ? 1 : (value - lowerInterval) / (higherInterval - lowerInterval);
+		}
+	}
+
+	/**
+	 * @param value that must land precisely on an interval.
+	 * @return index of the interval.
+	 * @throws NoSuchElementException if value is not one of the intervals.
+	 */
+	int indexOf(final float value) {
+		final int index = floorIndex(value);
+		if(intervals[index] != value) throw new NoSuchElementException("No interval at " + value);
+		return index;
+	}
+
+}
@@ -0,0 +1,255 @@
+package utils.Collections;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming tokenizer for tab-separated chart text, parsing each cell in place as the characters arrive.
+ * <p>
+ * Replaces reading every line into a String, splitting it and letting {@code Float.parseFloat} throw on blank or "untested" cells.
+ * A cell is checked against the decimal grammar first, so blank or non-numeric cells become NaN without an exception ever being built,
+ * and load time grows linearly with the size of the chart.
+ * <p>
+ * The results match the old line-by-line parsing: lines end at \n, \r or \r\n, a cell is trimmed of surrounding whitespace,
+ * trailing empty cells don't count towards the width of the table, and every row is padded with NaN to the widest row.
+ * Cells may be decimal numbers with an optional exponent and f/d suffix, NaN or Infinity; anything else is NaN.
+ *
+ * @author Alexander Paul
+ */
+final class ChartReader {
+
+	/**
+	 * Powers of ten that are exactly representable as floats.
+	 */
+	private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+	/**
+	 * Largest mantissa that is exactly representable as a float.
+	 */
+	private static final int MAX_EXACT_MANTISSA = 1 << 24;
+
+	private final Reader reader;
+	private final char[] buffer = new char[8192];
+	private int position, limit;
+
+	/**
+	 * Characters of the current cell, trimmed as they arrive.
+	 */
+	private char[] cell = new char[32];
+	private int cellLength;
+
+	/**
+	 * Whether the current cell had any characters at all, whitespace included.
+	 */
+	private boolean cellSeen;
+
+	/**
+	 * Values of the current row.
+	 */
+	private float[] row = new float[64];
+
+	/**
+	 * Number of cells in the current row that count towards its width.
+	 */
+	private int rowWidth;
+
+	private ChartReader(final Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads a whole chart. The reader is not closed.
+	 * @param reader of tab-separated chart text.
+	 * @return rectangular table of the chart's values, padded with NaN.
+	 * @throws IOException if the reader fails.
+	 */
+	static float[][] read(final Reader reader) throws IOException {
+		return new ChartReader(reader).readTable();
+	}
+
+	private float[][] readTable() throws IOException {
+		final List<float[]> rows = new ArrayList<>();
+		int width = 0;
+
+		int cells = 0;
+		boolean lineStarted = false;
+		boolean afterCarriageReturn = false;
+
+		for(int c = next(); c >= 0; c = next()) {
+			if(c == '\n' && afterCarriageReturn) {
+				afterCarriageReturn = false;
+				continue;
+			}
+			afterCarriageReturn = c == '\r';
+
+			if(c == '\n' || c == '\r') {
+				cells = endCell(cells);
+				width = Math.max(width, endRow(rows, cells));
+				cells = 0;
+				lineStarted = false;
+			} else if(c == '\t') {
+				cells = endCell(cells);
+				lineStarted = true;
+			} else {
+				appendToCell((char) c);
+				lineStarted = true;
+			}
+		}
+
+		if(lineStarted) {
+			cells = endCell(cells);
+			width = Math.max(width, endRow(rows, cells));
+		}
+
+		final float[][] table = new float[rows.size()][];
+		for(int i = 0; i < table.length; i++) {
+			final float[] values = rows.get(i);
+			table[i] = Arrays.copyOf(values, width);
+			if(values.length < width) Arrays.fill(table[i], values.length, width, Float.NaN);
+		}
+		return table;
+	}
+
+	private int next() throws IOException {
+		if(position == limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if(limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+
+	private void appendToCell(final char c) {
+		cellSeen = true;
+		if(cellLength == 0 && c <= ' ') return;
+		if(cellLength == cell.length) cell = Arrays.copyOf(cell, cellLength * 2);
+		cell[cellLength++] = c;
+	}
+
+	/**
+	 * Parses the current cell into the current row.
+	 * @param cells parsed so far in the current row.
+	 * @return cells parsed in the current row, including this one.
+	 */
+	private int endCell(final int cells) {
+		while(cellLength > 0 && cell[cellLength - 1] <= ' ') cellLength--;
+
+		if(cells == row.length) row = Arrays.copyOf(row, cells * 2);
+
+		//String.split only drops trailing cells that are empty, so a cell of just whitespace still widens the row.
+		if(cellSeen) rowWidth = cells + 1;
+		row[cells] = parse(cell, cellLength);
+
+		cellLength = 0;
+		cellSeen = false;
+		return cells + 1;
+	}
+
+	/**
+	 * Adds the values of the current row that count towards its width to rows.
+	 * @param rows parsed so far.
+	 * @param cells parsed in the current row.
+	 * @return width of the row.
+	 */
+	private int endRow(final List<float[]> rows, final int cells) {
+		//A line without any tabs counts as one cell, even when empty.
+		final int width = cells == 1 ? 1 : rowWidth;
+		rows.add(Arrays.copyOf(row, width));
+		rowWidth = 0;
+		return width;
+	}
+
+	/**
+	 * Parses a trimmed cell without throwing.
+	 * Short decimals take the exact fast path: a mantissa and power of ten that are both exact floats give a correctly rounded
+	 * result from one multiplication or division, identical to {@code Float.parseFloat}. Longer numbers that pass the grammar
+	 * are handed to {@code Float.parseFloat}, which can then no longer fail.
+	 * @param chars of the cell.
+	 * @param length of the cell.
+	 * @return value of the cell, or NaN if it isn't a number.
+	 */
+	static float parse(final char[] chars, final int length) {
+		if(length == 0) return Float.NaN;
+
+		int i = 0;
+		boolean negative = false;
+		if(chars[i] == '+' || chars[i] == '-') {
+			negative = chars[i] == '-';
+			i++;
+		}
+
+		if(matches(chars, i, length, "NaN")) return Float.NaN;
+		if(matches(chars, i, length, "Infinity")) return negative ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+
+		long mantissa = 0;
+		int digits = 0;
+		int significantDigits = 0;
+		int exponent = 0;
+
+		for(; i < length && isDigit(chars[i]); i++, digits++) {
+			if(mantissa == 0 && chars[i] == '0') continue;
+			if(significantDigits++ < 18) mantissa = mantissa * 10 + (chars[i] - '0');
+			else exponent++;
+		}
+
+		if(i < length && chars[i] == '.') {
+			for(i++; i < length && isDigit(chars[i]); i++, digits++) {
+				if(mantissa == 0 && chars[i] == '0') {
+					exponent--;
+					continue;
+				}
+				if(significantDigits++ < 18) {
+					mantissa = mantissa * 10 + (chars[i] - '0');
+					exponent--;
+				}
+			}
+		}
+
+		if(digits == 0) return Float.NaN;
+
+		if(i < length && (chars[i] == 'e' || chars[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if(i < length && (chars[i] == '+' || chars[i] == '-')) {
+				negativeExponent = chars[i] == '-';
+				i++;
+			}
+			if(i == length || !isDigit(chars[i])) return Float.NaN;
+
+			int explicitExponent = 0;
+			for(; i < length && isDigit(chars[i]); i++)
+				if(explicitExponent < 100_000) explicitExponent = explicitExponent * 10 + (chars[i] - '0');
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+
+		if(i < length && (chars[i] == 'f' || chars[i] == 'F' || chars[i] == 'd' || chars[i] == 'D')) i++;
+
+		if(i != length) return Float.NaN;
+
+		if(mantissa == 0) return negative ? -0f : 0f;
+
+		if(significantDigits <= 18 && mantissa <= MAX_EXACT_MANTISSA && exponent >= -10 && exponent <= 10) {
+			final float value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+
+		return Float.parseFloat(new String(chars, 0, length));
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean matches(final char[] chars, final int from, final int length, final String word) {
+		if(length - from != word.length()) return false;
+		for(int i = 0; i < word.length(); i++) if(chars[from + i] != word.charAt(i)) return false;
+		return true;
+	}
+
+}
@@ -0,0 +1,213 @@
+package utils.Collections;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table of any number of axes mapped to values, the N-dimensional sibling of {@link Table}.
+ * Used where a third axis (weight, for example) would otherwise mean chaining several 2-D tables and interpolating between them by hand.
+ * <p>
+ * Values are stored in one flat row-major array: the last axis varies fastest, and each axis has a stride
+ * that is the product of the sizes of the axes after it.
+ * Interpolation is multilinear over the 2^N surrounding cells: each axis is searched once, then the cells are combined in one recursive pass that allocates nothing.
+ * <blockquote>
+ * GridTable.builder().axis(0, 16000, 500).axis(-45, 55, 5).axisBreakpoints(2000, 2400, 3000).withData(values).build();
+ * </blockquote>
+ *
+ * @author Alexander Paul
+ */
+public class GridTable {
+
+	/**
+	 * Flat row-major values, last axis fastest.
+	 */
+	private final float[] values;
+
+	private final Boundary[] axes;
+
+	/**
+	 * Distance in values between consecutive intervals of each axis.
+	 */
+	private final int[] strides;
+
+	private final ThreadLocal<Corners> corners;
+
+	private GridTable(final float[] values, final Boundary[] axes) {
+		this.axes = axes;
+		this.strides = new int[axes.length];
+
+		long size = 1;
+		for(int axis = axes.length - 1; axis >= 0; axis--) {
+			strides[axis] = (int) size;
+			size *= axes[axis].intervals.length;
+			if(size > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many cells for one array.");
+		}
+
+		if(values.length != size)
+			throw new IllegalArgumentException("Expected " + size + " values for the given axes, but got " + values.length + ".");
+
+		this.values = values.clone();
+		this.corners = ThreadLocal.withInitial(() -> new Corners(axes.length));
+	}
+
+	/**
+	 * @return a builder for GridTable construction.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Used to implement the Builder Pattern in GridTable Creation.
+	 * Axes are added in order, from the slowest varying to the fastest varying in the data.
+	 * @author Alexander Paul
+	 */
+	public static class Builder {
+
+		private final List<Boundary> axes = new ArrayList<>();
+		private final List<float[]> breakpoints = new ArrayList<>();
+		private float[] values;
+		private boolean segmentHint;
+
+		public Builder withData(final float[] values) {
+			this.values = values;
+			return this;
+		}
+
+		/**
+		 * Adds an axis of fixed intervals.
+		 * @param min first interval.
+		 * @param max upper bound of the intervals.
+		 * @param interval between consecutive intervals.
+		 */
+		public Builder axis(final float min, final float max, final float interval) {
+			axes.add(new Boundary(min, max, interval));
+			breakpoints.add(null);
+			return this;
+		}
+
+		/**
+		 * Adds an axis of irregular breakpoints.
+		 * @param breakpoints in strictly ascending order.
+		 */
+		public Builder axisBreakpoints(final float... breakpoints) {
+			axes.add(null);
+			this.breakpoints.add(breakpoints);
+			return this;
+		}
+
+		/**
+		 * Lets axes with breakpoints remember the last segment they found,
+		 * so queries arriving in spatial order mostly skip the binary search.
+		 * @param segmentHint whether to remember the last segment.
+		 */
+		public Builder withSegmentHint(final boolean segmentHint) {
+			this.segmentHint = segmentHint;
+			return this;
+		}
+
+		public GridTable build() {
+			if(axes.isEmpty()) throw new IllegalStateException("At least one axis is required.");
+			final Boundary[] bounds = new Boundary[axes.size()];
+			for(int axis = 0; axis < bounds.length; axis++)
+				bounds[axis] = axes.get(axis) != null ? axes.get(axis) : new Boundary(breakpoints.get(axis), segmentHint);
+			return new GridTable(values, bounds);
+		}
+
+	}
+
+	/**
+	 * @return number of axes.
+	 */
+	public int dimensions() {
+		return axes.length;
+	}
+
+	/**
+	 * Returns value in respect to precise intervals of the table.
+	 * @param point with one coordinate per axis, each landing precisely on an interval.
+	 * @return corresponding value in the table.
+	 */
+	public float getPrecise(final float... point) {
+		checkBounds(point);
+		int offset = 0;
+		for(int axis = 0; axis < axes.length; axis++) offset += axes[axis].indexOf(point[axis]) * strides[axis];
+		return values[offset];
+	}
+
+	/**
+	 * Gets value that has been multilinearly interpolated corresponding to the point.
+	 * Each axis is searched once, for the intervals either side of its coordinate and the ratio between them,
+	 * before the surrounding cells are combined.
+	 * Pass a reused array rather than varargs on hot paths, so the call itself doesn't allocate.
+	 * @param point with one coordinate per axis.
+	 * @return interpolated value, or NaN if any surrounding cell is NaN.
+	 */
+	public float interpolate(final float... point) {
+		checkBounds(point);
+		final Corners corners = this.corners.get();
+		for(int axis = 0; axis < axes.length; axis++) {
+			final Boundary bounds = axes[axis];
+			final float coordinate = point[axis];
+			final int lowerIndex = bounds.floorIndex(coordinate);
+			final int higherIndex = bounds.ceilingIndex(coordinate, lowerIndex);
+			corners.lower[axis] = lowerIndex * strides[axis];
+			corners.higher[axis] = higherIndex * strides[axis];
+			if(lowerIndex != higherIndex) {
+				final float lowerInterval = bounds.intervals[lowerIndex];
+				corners.ratio[axis] = (coordinate - lowerInterval) / (bounds.intervals[higherIndex] - lowerInterval);
+			}
+		}
+		return interpolate(corners, 0, 0);
+	}
+
+	/**
+	 * Interpolates along one axis between the two sub-tables surrounding the point, each of which is interpolated the same way along the remaining axes.
+	 * The 2^N cells are visited in a single depth-first pass over the offsets and ratios already resolved into corners.
+	 * An axis the point lands precisely on only visits one side.
+	 * @param corners of the point, resolved for every axis.
+	 * @param axis to interpolate along.
+	 * @param offset of the sub-table spanned by this axis and the ones after it.
+	 * @return interpolated value of the sub-table.
+	 */
+	private float interpolate(final Corners corners, final int axis, final int offset) {
+		if(axis == axes.length) return values[offset];
+
+		final float lower = interpolate(corners, axis + 1, offset + corners.lower[axis]);
+		if(corners.lower[axis] == corners.higher[axis]) return lower;
+
+		final float higher = interpolate(corners, axis + 1, offset + corners.higher[axis]);
+		return ((higher - lower) * corners.ratio[axis]) + lower;
+	}
+
+	/**
+	 * Offsets of the intervals either side of a point along each axis, and the point's ratio between them.
+	 * Kept per thread and reused, so interpolating allocates nothing.
+	 */
+	private static class Corners {
+
+		private final int[] lower, higher;
+		private final float[] ratio;
+
+		private Corners(final int dimensions) {
+			this.lower = new int[dimensions];
+			this.higher = new int[dimensions];
+			this.ratio = new float[dimensions];
+		}
+
+	}
+
+	/**
+	 * Utility function.
+	 * @param point to check.
+	 */
+	private void checkBounds(final float[] point) {
+		if(point.length != axes.length)
+			throw new IllegalArgumentException("Expected " + axes.length + " coordinates, but got " + point.length + ".");
+		for(int axis = 0; axis < axes.length; axis++) {
+			if(point[axis] < axes[axis].min || point[axis] > axes[axis].max)
+				throw new RuntimeException("Coordinate " + axis + " is out of bounds.");
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+package utils.Collections;
+
+/**
+ * Per-row monotonicity and range of a Table's values, used to answer inverse look ups:
+ * at this row, which column gives this value?
+ * <p>
+ * Interpolating between two rows blends them column by column, and a blend of two rows that rise (or fall) together
+ * rises (or falls) as well. Such a blend is binary searched for the segment bracketing the value, which is then solved directly,
+ * in O(log n). Any other blend is scanned for its first bracketing segment, once its range has ruled out values it can't reach.
+ *
+ * @author Alexander Paul
+ */
+final class InverseIndex {
+
+	private static final byte RISING = 1, FALLING = -1, NEITHER = 0;
+
+	/**
+	 * Whether each row never decreases, never increases, or neither (including rows with NaN).
+	 */
+	private final byte[] direction;
+
+	/**
+	 * Smallest and largest number in each row.
+	 */
+	private final float[] min, max;
+
+	private final int width;
+
+	/**
+	 * @param values to index.
+	 * @param width number of columns that have an interval.
+	 */
+	InverseIndex(final TableStorage values, final int width) {
+		final int height = values.height();
+		this.width = width;
+		this.direction = new byte[height];
+		this.min = new float[height];
+		this.max = new float[height];
+
+		for(int row = 0; row < height; row++) {
+			boolean rising = true;
+			boolean falling = true;
+			float low = Float.POSITIVE_INFINITY;
+			float high = Float.NEGATIVE_INFINITY;
+			for(int col = 0; col < width; col++) {
+				final float value = values.get(row, col);
+				if(Float.isNaN(value)) {
+					rising = falling = false;
+					continue;
+				}
+				low = Math.min(low, value);
+				high = Math.max(high, value);
+				if(col > 0) {
+					final float previous = values.get(row, col - 1);
+					if(value < previous) rising = false;
+					if(value > previous) falling = false;
+				}
+			}
+			direction[row] = rising ? RISING : falling ? FALLING : NEITHER;
+			min[row] = low;
+			max[row] = high;
+		}
+	}
+
+	/**
+	 * Solves for the column at which the blend of two rows reaches the target value.
+	 * @param values of the table.
+	 * @param columns intervals of the table's columns.
+	 * @param lowerRow index of the row at or below the row looked up.
+	 * @param higherRow index of the row at or above the row looked up.
+	 * @param rowRatio position of the row looked up between the two, from 0 to 1.
+	 * @param target value to solve for.
+	 * @return first column, in ascending order, at which the blend reaches target, or NaN if it never does.
+	 */
+	float solve(final TableStorage values, final float[] columns, final int lowerRow, final int higherRow, final float rowRatio, final float target) {
+		if(width == 0 || Float.isNaN(target)) return Float.NaN;
+		if(target < Math.min(min[lowerRow], min[higherRow]) || target > Math.max(max[lowerRow], max[higherRow])) return Float.NaN;
+
+		final int last = width - 1;
+		final byte lowerDirection = direction[lowerRow];
+
+		if(lowerDirection != NEITHER && lowerDirection == direction[higherRow]) {
+			final boolean rising = lowerDirection == RISING;
+			final float first = blend(values, lowerRow, higherRow, rowRatio, 0);
+			if(rising ? target < first : target > first) return Float.NaN;
+			if(rising ? target > blend(values, lowerRow, higherRow, rowRatio, last) : target < blend(values, lowerRow, higherRow, rowRatio, last)) return Float.NaN;
+
+			//Find the first column reaching target; the segment ending there brackets it.
+			int low = 0;
+			int high = last;
+			while(low < high) {
+				final int mid = (low + high) >>> 1;
+				final float value = blend(values, lowerRow, higherRow, rowRatio, mid);
+				if(rising ? value >= target : value <= target) high = mid;
+				else low = mid + 1;
+			}
+			return low == 0 ? columns[0] : solveSegment(values, columns, lowerRow, higherRow, rowRatio, low - 1, target);
+		}
+
+		float previous = blend(values, lowerRow, higherRow, rowRatio, 0);
+		if(previous == target) return columns[0];
+		for(int col = 1; col <= last; col++) {
+			final float value = blend(values, lowerRow, higherRow, rowRatio, col);
+			if(previous < target ? target <= value : previous > target && target >= value)
+				return solveSegment(values, columns, lowerRow, higherRow, rowRatio, col - 1, target);
+			if(value == target) return columns[col];
+			previous = value;
+		}
+		return Float.NaN;
+	}
+
+	/**
+	 * Bilinear interpolation is linear along a row between two columns, so the segment is solved directly.
+	 */
+	private static float solveSegment(final TableStorage values, final float[] columns, final int lowerRow, final int higherRow,
+			final float rowRatio, final int col, final float target) {
+		final float left = blend(values, lowerRow, higherRow, rowRatio, col);
+		final float right = blend(values, lowerRow, higherRow, rowRatio, col + 1);
+		if(left == right) return columns[col];
+		final float ratio = (target - left) / (right - left);
+		return columns[col] + (columns[col + 1] - columns[col]) * ratio;
+	}
+
+	/**
+	 * @return value at column of the blend of two rows, computed the same way as when interpolating.
+	 */
+	private static float blend(final TableStorage values, final int lowerRow, final int higherRow, final float rowRatio, final int col) {
+		final float lower = values.get(lowerRow, col);
+		return ((values.get(higherRow, col) - lower) * rowRatio) + lower;
+	}
+
+}
@@ -0,0 +1,114 @@
+package utils.Collections;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handle to a Table whose chart data can be revised while the service keeps running.
+ * <p>
+ * A Table never changes once built, so each one is an immutable snapshot. Readers go through the handle's current snapshot
+ * with nothing more than a volatile read: no locks, and no contention with a reload in progress.
+ * A reload parses the new data in the background and then swaps the new snapshot in atomically;
+ * readers already inside a look up finish it against the snapshot they started with.
+ * <blockquote>
+ * ReloadableTable chart = new ReloadableTable(builder.build());
+ * chart.reload(Table.builder().withData(Files.newBufferedReader(revised))...);
+ * </blockquote>
+ * When reloads overlap, the most recently requested one wins, even if an older one finishes parsing last.
+ *
+ * @author Alexander Paul
+ */
+public class ReloadableTable {
+
+	private volatile Table table;
+
+	/**
+	 * Version of the snapshot currently published. Guarded by this.
+	 */
+	private long publishedVersion;
+
+	private final AtomicLong requestedVersion = new AtomicLong();
+
+	/**
+	 * @param table initial snapshot.
+	 */
+	public ReloadableTable(final Table table) {
+		this.table = Objects.requireNonNull(table);
+	}
+
+	/**
+	 * Readers that make several look ups which must agree with each other should take one snapshot and use it throughout.
+	 * @return current snapshot.
+	 */
+	public Table snapshot() {
+		return table;
+	}
+
+	/**
+	 * @see Table#interpolate(float, float)
+	 */
+	public float interpolate(final float row, final float column) {
+		return table.interpolate(row, column);
+	}
+
+	/**
+	 * The whole batch is interpolated against the same snapshot.
+	 * @see Table#interpolate(float[], float[], float[], int, int)
+	 */
+	public void interpolate(final float[] rows, final float[] columns, final float[] out, final int offset, final int length) {
+		table.interpolate(rows, columns, out, offset, length);
+	}
+
+	/**
+	 * @see Table#getPrecise(float, float)
+	 */
+	public float getPrecise(final float row, final float column) {
+		return table.getPrecise(row, column);
+	}
+
+	/**
+	 * Builds a new snapshot on the common pool, then swaps it in.
+	 * @param builder of the revised table; shouldn't be changed until the returned future completes.
+	 * @return future completing with the new snapshot once it's been built, or exceptionally if building it failed,
+	 * in which case the current snapshot stays in place.
+	 */
+	public CompletableFuture<Table> reload(final Table.Builder builder) {
+		return reload(builder, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Builds a new snapshot on the executor, then swaps it in.
+	 * @param builder of the revised table; shouldn't be changed until the returned future completes.
+	 * @param executor to parse and build the new snapshot on.
+	 * @return future completing with the new snapshot once it's been built, or exceptionally if building it failed,
+	 * in which case the current snapshot stays in place.
+	 */
+	public CompletableFuture<Table> reload(final Table.Builder builder, final Executor executor) {
+		final long version = requestedVersion.incrementAndGet();
+		return CompletableFuture.supplyAsync(builder::build, executor).thenApply(snapshot -> {
+			publish(snapshot, version);
+			return snapshot;
+		});
+	}
+
+	/**
+	 * Swaps an already built snapshot in right away.
+	 * @param table new snapshot.
+	 */
+	public void swap(final Table table) {
+		publish(Objects.requireNonNull(table), requestedVersion.incrementAndGet());
+	}
+
+	/**
+	 * Only writers synchronize, so readers never wait on a swap.
+	 */
+	private synchronized void publish(final Table snapshot, final long version) {
+		if(version <= publishedVersion) return;
+		publishedVersion = version;
+		table = snapshot;
+	}
+
+}
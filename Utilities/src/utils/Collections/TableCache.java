@@ -0,0 +1,148 @@
+package utils.Collections;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size memo of recently interpolated points of a Table, for traffic that keeps coming back to the same few points,
+ * such as standard altitudes at standard temperatures.
+ * <p>
+ * The cache is direct-mapped: each point hashes to exactly one slot, keyed by the bits of its row and column,
+ * and a new point simply replaces whatever the slot held. Nothing is allocated on a look up, hit or miss.
+ * <p>
+ * Each slot is guarded by a sequence number, so concurrent readers never need a lock.
+ * A writer claims the slot by making its sequence odd, stores the point, then makes it even again;
+ * a reader that sees an odd sequence, or a sequence that changed while it read, treats the look up as a miss.
+ * A writer that loses the race for a slot just doesn't cache its point.
+ * <blockquote>
+ * Table table = Table.builder().withData("chart.txt")...withCache(256).build();
+ * ...
+ * table.getCache().getHitRatio();
+ * </blockquote>
+ *
+ * @author Alexander Paul
+ */
+public class TableCache {
+
+	/**
+	 * Returned by {@link #find(float, float)} when the point isn't cached; no float's bits widen to it.
+	 */
+	static final long MISS = -1;
+
+	/**
+	 * Longs per slot: sequence, key and value, padded to a power of two so a slot's index is a shift.
+	 * The array's elements start after its header, at no particular cache line boundary, so a 32-byte slot may straddle two lines
+	 * and shares a line with a neighbour; writes only happen on misses and land on hashed, scattered slots, so that sharing is rarely contended.
+	 */
+	private static final int STRIDE = 4;
+	private static final int SEQUENCE = 0, KEY = 1, VALUE = 2;
+
+	/**
+	 * Sequence of a slot that has never been written, which can't be mistaken for a cached point of row and column 0.
+	 */
+	private static final long EMPTY = 0;
+
+	private final AtomicLongArray slots;
+	private final int shift;
+	private final int size;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param size number of points held; rounded up to a power of two.
+	 */
+	TableCache(final int size) {
+		if(size < 1) throw new IllegalArgumentException("Cache size must be at least 1.");
+		if(size > 1 << 26) throw new IllegalArgumentException("Cache size must be at most " + (1 << 26) + '.');
+		this.size = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+		this.shift = Long.SIZE - Integer.numberOfTrailingZeros(this.size);
+		this.slots = new AtomicLongArray(this.size * STRIDE);
+	}
+
+	/**
+	 * @return bits of the cached value at row and column, or {@link #MISS}.
+	 */
+	long find(final float row, final float column) {
+		final long key = key(row, column);
+		final int slot = slot(key);
+		final long sequence = slots.get(slot + SEQUENCE);
+		if(sequence != EMPTY && (sequence & 1) == 0 && slots.get(slot + KEY) == key) {
+			final long value = slots.get(slot + VALUE);
+			if(slots.get(slot + SEQUENCE) == sequence) {
+				hits.increment();
+				return value;
+			}
+		}
+		misses.increment();
+		return MISS;
+	}
+
+	/**
+	 * Caches the value at row and column, unless another writer holds its slot.
+	 */
+	void store(final float row, final float column, final float value) {
+		final long key = key(row, column);
+		final int slot = slot(key);
+		final long sequence = slots.get(slot + SEQUENCE);
+		if((sequence & 1) != 0 || !slots.compareAndSet(slot + SEQUENCE, sequence, sequence + 1)) return;
+		slots.set(slot + KEY, key);
+		slots.set(slot + VALUE, Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+		slots.set(slot + SEQUENCE, sequence + 2);
+	}
+
+	private static long key(final float row, final float column) {
+		return (long) Float.floatToRawIntBits(row) << 32 | Float.floatToRawIntBits(column) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Fibonacci hashing: the top bits of the key times the golden ratio pick the slot, mixing row and column bits alike.
+	 */
+	private int slot(final long key) {
+		return size == 1 ? 0 : (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) * STRIDE;
+	}
+
+	/**
+	 * @return number of points the cache holds.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return number of look ups answered from the cache.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of look ups that had to be interpolated.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return fraction of look ups answered from the cache, or 0 if there haven't been any.
+	 */
+	public double getHitRatio() {
+		final long hit = getHits();
+		final long total = hit + getMisses();
+		return total == 0 ? 0 : (double) hit / total;
+	}
+
+	/**
+	 * Zeroes the hit and miss counts, keeping the cached points.
+	 */
+	public void resetStatistics() {
+		hits.reset();
+		misses.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d points, %d hits, %d misses, %.1f%% hit ratio", size, getHits(), getMisses(), getHitRatio() * 100);
+	}
+
+}
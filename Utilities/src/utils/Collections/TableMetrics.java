@@ -0,0 +1,228 @@
+package utils.Collections;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Usage counters and sampled look up latencies of a Table, for finding hot charts and pathological query patterns in production.
+ * <p>
+ * Counts interpolated and precise look ups, look ups rejected for being out of bounds, and look ups resulting in NaN.
+ * One in every {@code sampleRate} single look ups is also timed into a power-of-two latency histogram; batches are counted but not timed.
+ * Read the numbers through the getters, or register the metrics as an MBean to read them through JMX.
+ * <blockquote>
+ * TableMetrics metrics = new TableMetrics("takeoff-distance", 64);
+ * metrics.register();
+ * Table table = Table.builder().withData("chart.txt")...withMetrics(metrics).build();
+ * </blockquote>
+ * Metrics are only recorded when the JVM runs with {@code -Dutils.table.metrics=true}.
+ * Without it, the check in Table is against a static final constant, so the JIT compiles the instrumentation away entirely,
+ * whether or not metrics are attached.
+ *
+ * @author Alexander Paul
+ */
+public class TableMetrics implements TableMetricsMBean {
+
+	/**
+	 * Whether Tables record metrics at all.
+	 */
+	static final boolean ENABLED = Boolean.getBoolean("utils.table.metrics");
+
+	/**
+	 * Start of a look up that isn't being timed.
+	 */
+	static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+	private final String name;
+	private final int sampleMask;
+
+	private final LongAdder interpolations = new LongAdder();
+	private final LongAdder preciseLookups = new LongAdder();
+	private final LongAdder outOfBounds = new LongAdder();
+	private final LongAdder nanResults = new LongAdder();
+
+	/**
+	 * Bucket i counts sampled look ups that took from 2^i to 2^(i+1) - 1 nanoseconds.
+	 */
+	private final AtomicLongArray latencies = new AtomicLongArray(Long.SIZE);
+	private final LongAdder sampledNanos = new LongAdder();
+
+	/**
+	 * @param name of the table, used when registering through JMX.
+	 * @param sampleRate one in how many look ups is timed; rounded up to a power of two.
+	 */
+	public TableMetrics(final String name, final int sampleRate) {
+		if(sampleRate < 1) throw new IllegalArgumentException("Sample rate must be at least 1.");
+		this.name = name;
+		this.sampleMask = (sampleRate == 1 ? 1 : Integer.highestOneBit(sampleRate - 1) << 1) - 1;
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server as {@code utils.Collections:type=Table,name=<name>}.
+	 * @throws IllegalStateException if registration fails, for example because the name is already taken.
+	 */
+	public void register() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName());
+		} catch (JMException e) {
+			throw new IllegalStateException("Couldn't register metrics for " + name, e);
+		}
+	}
+
+	/**
+	 * Unregisters these metrics from the platform MBean server.
+	 */
+	public void unregister() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName());
+		} catch (JMException e) {
+			throw new IllegalStateException("Couldn't unregister metrics for " + name, e);
+		}
+	}
+
+	private ObjectName objectName() throws JMException {
+		return new ObjectName("utils.Collections:type=Table,name=" + ObjectName.quote(name));
+	}
+
+	/**
+	 * @return start of the look up in nanoseconds, or {@link #NOT_SAMPLED}.
+	 */
+	long beginInterpolation() {
+		interpolations.increment();
+		return begin();
+	}
+
+	/**
+	 * @return start of the look up in nanoseconds, or {@link #NOT_SAMPLED}.
+	 */
+	long beginPrecise() {
+		preciseLookups.increment();
+		return begin();
+	}
+
+	/**
+	 * Counts a batch of look ups, which isn't timed.
+	 * @param length number of look ups in the batch.
+	 */
+	void beginBatch(final int length) {
+		interpolations.add(length);
+	}
+
+	/**
+	 * @param results of the batch.
+	 * @param offset of the first result.
+	 * @param length number of results.
+	 */
+	void endBatch(final float[] results, final int offset, final int length) {
+		int nan = 0;
+		for(int i = offset; i < offset + length; i++) {
+			if(Float.isNaN(results[i])) nan++;
+		}
+		if(nan > 0) nanResults.add(nan);
+	}
+
+	private long begin() {
+		return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0 ? System.nanoTime() : NOT_SAMPLED;
+	}
+
+	/**
+	 * @param start of the look up, as returned when it began.
+	 * @param result of the look up.
+	 */
+	void end(final long start, final float result) {
+		if(Float.isNaN(result)) nanResults.increment();
+		if(start == NOT_SAMPLED) return;
+
+		final long nanos = Math.max(1, System.nanoTime() - start);
+		latencies.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos));
+		sampledNanos.add(nanos);
+	}
+
+	void outOfBounds() {
+		outOfBounds.increment();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getInterpolations() {
+		return interpolations.sum();
+	}
+
+	@Override
+	public long getPreciseLookups() {
+		return preciseLookups.sum();
+	}
+
+	@Override
+	public long getOutOfBounds() {
+		return outOfBounds.sum();
+	}
+
+	@Override
+	public long getNaNResults() {
+		return nanResults.sum();
+	}
+
+	@Override
+	public long getSampledLookups() {
+		long sampled = 0;
+		for(int bucket = 0; bucket < latencies.length(); bucket++) sampled += latencies.get(bucket);
+		return sampled;
+	}
+
+	@Override
+	public double getMeanLatencyNanos() {
+		final long sampled = getSampledLookups();
+		return sampled == 0 ? 0 : (double) sampledNanos.sum() / sampled;
+	}
+
+	@Override
+	public long getP99LatencyNanos() {
+		final long[] histogram = getLatencyHistogram();
+		long sampled = 0;
+		for(long count : histogram) sampled += count;
+		if(sampled == 0) return 0;
+
+		final long rank = (long) Math.ceil(sampled * 0.99);
+		long seen = 0;
+		for(int bucket = 0; bucket < histogram.length; bucket++) {
+			seen += histogram[bucket];
+			if(seen >= rank) return (1L << (bucket + 1)) - 1;
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return copy of the latency histogram, where bucket i counts sampled look ups that took from 2^i to 2^(i+1) - 1 nanoseconds.
+	 */
+	public long[] getLatencyHistogram() {
+		final long[] histogram = new long[latencies.length()];
+		for(int bucket = 0; bucket < histogram.length; bucket++) histogram[bucket] = latencies.get(bucket);
+		return histogram;
+	}
+
+	@Override
+	public void reset() {
+		interpolations.reset();
+		preciseLookups.reset();
+		outOfBounds.reset();
+		nanResults.reset();
+		sampledNanos.reset();
+		for(int bucket = 0; bucket < latencies.length(); bucket++) latencies.set(bucket, 0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d interpolations, %d precise, %d out of bounds, %d NaN, mean %.0f ns, p99 <= %d ns", name,
+				getInterpolations(), getPreciseLookups(), getOutOfBounds(), getNaNResults(), getMeanLatencyNanos(), getP99LatencyNanos());
+	}
+
+}
@@ -0,0 +1,55 @@
+package utils.Collections;
+
+/**
+ * JMX view of a {@link TableMetrics}.
+ *
+ * @author Alexander Paul
+ */
+public interface TableMetricsMBean {
+
+	/**
+	 * @return name of the table, as registered.
+	 */
+	String getName();
+
+	/**
+	 * @return number of interpolated look ups, rejected ones included.
+	 */
+	long getInterpolations();
+
+	/**
+	 * @return number of precise look ups, rejected ones included.
+	 */
+	long getPreciseLookups();
+
+	/**
+	 * @return number of look ups rejected for being out of bounds.
+	 */
+	long getOutOfBounds();
+
+	/**
+	 * @return number of look ups that resulted in NaN.
+	 */
+	long getNaNResults();
+
+	/**
+	 * @return number of look ups whose latency was sampled.
+	 */
+	long getSampledLookups();
+
+	/**
+	 * @return mean latency of the sampled look ups in nanoseconds.
+	 */
+	double getMeanLatencyNanos();
+
+	/**
+	 * @return approximate 99th percentile latency of the sampled look ups in nanoseconds, rounded up to the top of its power-of-two bucket.
+	 */
+	long getP99LatencyNanos();
+
+	/**
+	 * Clears every counter and the latency histogram.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,193 @@
+package utils.Collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe registry of shared Tables, keyed by resource path, axis definition and metrics,
+ * so each chart is parsed once and held in memory once no matter how many callers ask for it.
+ * <p>
+ * Tables are loaded lazily on first access. Concurrent requests for the same table wait on a single load rather than each parsing it.
+ * Once the loaded tables exceed the memory budget, the least recently used ones are evicted;
+ * callers still holding an evicted Table can keep using it, and the next request simply loads it again.
+ * <blockquote>
+ * Table table = registry.get(Table.builder().withData("chart.txt").rowMin(0).rowMax(16000).rowInterval(500)...);
+ * </blockquote>
+ * Look ups of loaded tables take no locks: recency is a timestamp written on each access,
+ * and only eviction, which is rare, scans the entries for the oldest.
+ *
+ * @author Alexander Paul
+ */
+public class TableRegistry {
+
+	private final long budgetBytes;
+
+	private final Map<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Total size of the loaded tables.
+	 */
+	private final AtomicLong loadedBytes = new AtomicLong();
+
+	/**
+	 * Source of access timestamps; a counter rather than the clock so ties can't happen.
+	 */
+	private final AtomicLong clock = new AtomicLong();
+
+	/**
+	 * @param budgetBytes that the loaded tables may occupy before the least recently used ones are evicted.
+	 */
+	public TableRegistry(final long budgetBytes) {
+		if(budgetBytes < 0) throw new IllegalArgumentException("Budget can't be negative.");
+		this.budgetBytes = budgetBytes;
+	}
+
+	/**
+	 * Slot for one table, shared by every caller asking for the same definition.
+	 */
+	private static class Entry {
+
+		private final FutureTask<Table> load;
+
+		/**
+		 * Size of the table once loaded, 0 until then.
+		 */
+		private volatile long sizeInBytes;
+
+		private volatile long lastAccess;
+
+		private Entry(final Table.Builder builder) {
+			this.load = new FutureTask<>(builder::build);
+		}
+
+	}
+
+	/**
+	 * Gets the table the builder defines, loading it if it isn't already loaded.
+	 * @param builder with a resource path as its data, along with the table's axes and layout.
+	 * The builder shouldn't be changed afterwards, since a load may still be using it.
+	 * @return shared table.
+	 * @throws IllegalArgumentException if the builder's data isn't a resource path.
+	 */
+	public Table get(final Table.Builder builder) {
+		if(!(builder.data instanceof String)) throw new IllegalArgumentException("Only tables loaded from a resource path can be registered.");
+
+		final List<Object> key = key(builder);
+		final Entry entry = entries.computeIfAbsent(key, k -> new Entry(builder));
+		entry.lastAccess = clock.incrementAndGet();
+
+		if(entry.load.isDone()) return join(key, entry);
+
+		//Only the first caller runs the load; the rest return from run right away and wait in join.
+		entry.load.run();
+		final Table table = join(key, entry);
+
+		if(entry.sizeInBytes == 0) {
+			synchronized(entry) {
+				if(entry.sizeInBytes == 0) {
+					entry.sizeInBytes = Math.max(1, table.sizeInBytes());
+					if(loadedBytes.addAndGet(entry.sizeInBytes) > budgetBytes) evict(entry);
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Key of the table a builder defines: its definition, and its metrics by identity,
+	 * so builders recording into different metrics, or none, never share a table.
+	 */
+	private static List<Object> key(final Table.Builder builder) {
+		return Arrays.asList(builder.definition(), builder.metrics);
+	}
+
+	private Table join(final List<Object> key, final Entry entry) {
+		try {
+			return entry.load.get();
+		} catch (ExecutionException e) {
+			//Forget the failed load so the next request retries it.
+			entries.remove(key, entry);
+			if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if(e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new IllegalStateException("Failed to load table: " + key, e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for table: " + key, e);
+		}
+	}
+
+	/**
+	 * Evicts the least recently used loaded tables until the budget is met again.
+	 * @param keep entry that was just loaded, which is never evicted.
+	 */
+	private synchronized void evict(final Entry keep) {
+		if(loadedBytes.get() <= budgetBytes) return;
+
+		final List<Map.Entry<List<Object>, Entry>> loaded = new ArrayList<>();
+		for(Map.Entry<List<Object>, Entry> candidate : entries.entrySet()) {
+			if(candidate.getValue() != keep && candidate.getValue().sizeInBytes > 0) loaded.add(candidate);
+		}
+		loaded.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccess));
+
+		for(Map.Entry<List<Object>, Entry> oldest : loaded) {
+			if(loadedBytes.get() <= budgetBytes) return;
+			if(entries.remove(oldest.getKey(), oldest.getValue())) loadedBytes.addAndGet(-oldest.getValue().sizeInBytes);
+		}
+	}
+
+	/**
+	 * Evicts the table the builder defines, if it's loaded.
+	 * @param builder defining the table.
+	 */
+	public void invalidate(final Table.Builder builder) {
+		final Entry entry = entries.remove(key(builder));
+		if(entry != null) release(entry);
+	}
+
+	/**
+	 * Evicts every table.
+	 */
+	public void clear() {
+		for(List<Object> key : entries.keySet()) {
+			final Entry entry = entries.remove(key);
+			if(entry != null) release(entry);
+		}
+	}
+
+	private void release(final Entry entry) {
+		synchronized(entry) {
+			loadedBytes.addAndGet(-entry.sizeInBytes);
+			//Keeps a load finishing after its eviction from counting towards the budget.
+			entry.sizeInBytes = -1;
+		}
+	}
+
+	/**
+	 * @return number of tables loaded or loading.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return total size of the loaded tables.
+	 */
+	public long sizeInBytes() {
+		return loadedBytes.get();
+	}
+
+	/**
+	 * @return memory budget of the loaded tables.
+	 */
+	public long budgetBytes() {
+		return budgetBytes;
+	}
+
+}
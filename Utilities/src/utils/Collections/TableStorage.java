@@ -0,0 +1,344 @@
+package utils.Collections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Backing store of a {@link Table}'s values, addressed by row and column index.
+ * The Table does all the bounds checking, so implementations assume valid indices.
+ *
+ * @author Alexander Paul
+ */
+interface TableStorage {
+
+	/**
+	 * @param row index of the table.
+	 * @param column index of the table.
+	 * @return value stored at row and column.
+	 */
+	float get(int row, int column);
+
+	/**
+	 * @return number of rows.
+	 */
+	int height();
+
+	/**
+	 * @return number of columns in every row.
+	 */
+	int width();
+
+	/**
+	 * @return approximate number of bytes the values occupy, on or off the heap.
+	 */
+	long sizeInBytes();
+
+	/**
+	 * Copies a rectangular 2-D array into the storage chosen by layout.
+	 * @param table to store; every row must have the same length.
+	 * @param layout of the storage.
+	 * @return storage holding the values of table.
+	 */
+	static TableStorage of(final float[][] table, final Table.Layout layout) {
+		switch(layout) {
+		case FLAT: return new Flat(table);
+		case OFF_HEAP: return new OffHeap(table);
+		case HALF: return new Half(table);
+		case SCALED_SHORT: return new ScaledShort(table);
+		default: return new Jagged(table);
+		}
+	}
+
+	/**
+	 * The original layout: one heap array per row.
+	 * The array is shared, not copied.
+	 */
+	static final class Jagged implements TableStorage {
+
+		private final float[][] table;
+		private final int width;
+
+		Jagged(final float[][] table) {
+			this.table = table;
+			this.width = table.length == 0 ? 0 : table[0].length;
+		}
+
+		@Override
+		public float get(final int row, final int column) {
+			return table[row][column];
+		}
+
+		@Override
+		public int height() {
+			return table.length;
+		}
+
+		@Override
+		public int width() {
+			return width;
+		}
+
+		@Override
+		public long sizeInBytes() {
+			//Array headers of 16 bytes and references of 4 bytes, assuming compressed oops.
+			return 16 + table.length * (4 + 16 + (long) width * Float.BYTES);
+		}
+	}
+
+	/**
+	 * One contiguous row-major heap array, so a look up is a single array access with no row pointer to chase.
+	 */
+	static final class Flat implements TableStorage {
+
+		private final float[] values;
+		private final int width, height;
+
+		Flat(final float[][] table) {
+			this.height = table.length;
+			this.width = height == 0 ? 0 : table[0].length;
+			this.values = new float[width * height];
+			for(int row = 0; row < height; row++) System.arraycopy(table[row], 0, values, row * width, width);
+		}
+
+		@Override
+		public float get(final int row, final int column) {
+			return values[row * width + column];
+		}
+
+		@Override
+		public int height() {
+			return height;
+		}
+
+		@Override
+		public int width() {
+			return width;
+		}
+
+		@Override
+		public long sizeInBytes() {
+			return 16 + (long) values.length * Float.BYTES;
+		}
+	}
+
+	/**
+	 * One contiguous row-major block outside of the heap, for very large charts the garbage collector shouldn't have to trace or move.
+	 * Also used to wrap buffers that already hold row-major floats, such as a memory-mapped file.
+	 */
+	static final class OffHeap implements TableStorage {
+
+		private final FloatBuffer values;
+		private final int width, height;
+
+		OffHeap(final float[][] table) {
+			this.height = table.length;
+			this.width = height == 0 ? 0 : table[0].length;
+			this.values = ByteBuffer.allocateDirect(width * height * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+			for(int row = 0; row < height; row++) {
+				values.position(row * width);
+				values.put(table[row], 0, width);
+			}
+			values.clear();
+		}
+
+		/**
+		 * @param values row-major floats starting at index 0 of the buffer.
+		 * @param height number of rows.
+		 * @param width number of columns.
+		 */
+		OffHeap(final FloatBuffer values, final int height, final int width) {
+			this.values = values;
+			this.height = height;
+			this.width = width;
+		}
+
+		@Override
+		public float get(final int row, final int column) {
+			return values.get(row * width + column);
+		}
+
+		@Override
+		public int height() {
+			return height;
+		}
+
+		@Override
+		public int width() {
+			return width;
+		}
+
+		@Override
+		public long sizeInBytes() {
+			return (long) values.capacity() * Float.BYTES;
+		}
+	}
+
+	/**
+	 * One contiguous row-major array of IEEE 754 half-precision floats, half the size of {@link Flat}.
+	 * Rounds to nearest even, keeping 11 significant bits: a relative error of at most 2^-11 (about 0.05%)
+	 * for magnitudes from 6.1e-5 to 65504. Smaller magnitudes lose precision gradually down to 6e-8.
+	 * NaN, the infinities and signed zeros are kept as they are.
+	 */
+	static final class Half implements TableStorage {
+
+		/**
+		 * Magnitude from which a float rounds to infinity as a half: 65520, halfway past the largest half, 65504.
+		 */
+		private static final int OVERFLOW_BITS = 0x477FF000;
+
+		/**
+		 * Magnitude below which a float is subnormal as a half: 2^-14.
+		 */
+		private static final int SUBNORMAL_BITS = 0x38800000;
+
+		private final short[] values;
+		private final int width, height;
+
+		/**
+		 * @throws IllegalArgumentException if a finite value is too large for a half-precision float.
+		 */
+		Half(final float[][] table) {
+			this.height = table.length;
+			this.width = height == 0 ? 0 : table[0].length;
+			this.values = new short[width * height];
+			for(int row = 0; row < height; row++) {
+				for(int col = 0; col < width; col++) {
+					final float value = table[row][col];
+					if(Float.isFinite(value) && (Float.floatToRawIntBits(value) & 0x7FFFFFFF) >= OVERFLOW_BITS)
+						throw new IllegalArgumentException(value + " is too large for half-precision storage.");
+					values[row * width + col] = toHalf(value);
+				}
+			}
+		}
+
+		static short toHalf(final float value) {
+			final int bits = Float.floatToRawIntBits(value);
+			final int sign = (bits >>> 16) & 0x8000;
+			final int magnitude = bits & 0x7FFFFFFF;
+
+			//NaN keeps a quiet payload bit so it stays NaN, infinity stays infinity.
+			if(magnitude >= 0x7F800000) return (short) (sign | 0x7C00 | (magnitude > 0x7F800000 ? 0x200 : 0));
+			if(magnitude >= OVERFLOW_BITS) return (short) (sign | 0x7C00);
+
+			//Scaling by 2^24 is exact, and rint rounds half to even like the normal path.
+			if(magnitude < SUBNORMAL_BITS) return (short) (sign | (int) Math.rint(Float.intBitsToFloat(magnitude) * 0x1p24f));
+
+			final int mantissa = magnitude & 0x7FFFFF;
+			int half = (((magnitude >>> 23) - 112) << 10) | (mantissa >>> 13);
+			final int rest = mantissa & 0x1FFF;
+			//A carry out of the mantissa correctly bumps the exponent.
+			if(rest > 0x1000 || rest == 0x1000 && (half & 1) != 0) half++;
+			return (short) (sign | half);
+		}
+
+		static float toFloat(final short half) {
+			final int bits = half & 0xFFFF;
+			final int sign = (bits & 0x8000) << 16;
+			final int exponent = (bits >>> 10) & 0x1F;
+			final int mantissa = bits & 0x3FF;
+
+			if(exponent == 0x1F) return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+			if(exponent == 0) {
+				final float subnormal = mantissa * 0x1p-24f;
+				return sign == 0 ? subnormal : -subnormal;
+			}
+			return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+		}
+
+		@Override
+		public float get(final int row, final int column) {
+			return toFloat(values[row * width + column]);
+		}
+
+		@Override
+		public int height() {
+			return height;
+		}
+
+		@Override
+		public int width() {
+			return width;
+		}
+
+		@Override
+		public long sizeInBytes() {
+			return 16 + (long) values.length * Short.BYTES;
+		}
+	}
+
+	/**
+	 * One contiguous row-major array of 16-bit codes, scaled and offset per table to span the table's own range of values.
+	 * Half the size of {@link Flat}, with an absolute error of at most (max - min) / 131068, within 0.0008% of the table's range,
+	 * plus one float ulp of the value, which only shows when the values are large next to their range. 
+	 * NaN is kept as a reserved code; infinite values can't be stored.
+	 */
+	static final class ScaledShort implements TableStorage {
+
+		private static final short NAN_CODE = Short.MIN_VALUE;
+
+		/**
+		 * Codes from -32767 to 32767 span the range; -32768 is reserved for NaN.
+		 */
+		private static final int STEPS = 2 * Short.MAX_VALUE;
+
+		private final short[] values;
+		private final float offset, scale;
+		private final int width, height;
+
+		/**
+		 * @throws IllegalArgumentException if a value is infinite.
+		 */
+		ScaledShort(final float[][] table) {
+			this.height = table.length;
+			this.width = height == 0 ? 0 : table[0].length;
+
+			float min = Float.POSITIVE_INFINITY;
+			float max = Float.NEGATIVE_INFINITY;
+			for(float[] row : table) {
+				for(int col = 0; col < width; col++) {
+					if(Float.isInfinite(row[col])) throw new IllegalArgumentException("Infinite values can't be stored as scaled shorts.");
+					if(Float.isNaN(row[col])) continue;
+					min = Math.min(min, row[col]);
+					max = Math.max(max, row[col]);
+				}
+			}
+			if(min > max) min = max = 0;
+
+			//Computed in double so the midpoint and step of extreme ranges don't overflow.
+			this.offset = (float) (((double) min + max) / 2);
+			this.scale = max == min ? 1 : (float) (((double) max - min) / STEPS);
+
+			this.values = new short[width * height];
+			for(int row = 0; row < height; row++) {
+				for(int col = 0; col < width; col++) {
+					final float value = table[row][col];
+					final long code = Math.round((value - (double) offset) / scale);
+					values[row * width + col] = Float.isNaN(value) ? NAN_CODE : (short) Math.max(-Short.MAX_VALUE, Math.min(Short.MAX_VALUE, code));
+				}
+			}
+		}
+
+		@Override
+		public float get(final int row, final int column) {
+			final short code = values[row * width + column];
+			//Fused so the result is rounded once, keeping the error within half a step and an ulp of the value.
+			return code == NAN_CODE ? Float.NaN : Math.fma(code, scale, offset);
+		}
+
+		@Override
+		public int height() {
+			return height;
+		}
+
+		@Override
+		public int width() {
+			return width;
+		}
+
+		@Override
+		public long sizeInBytes() {
+			return 16 + (long) values.length * Short.BYTES;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package utils.Collections;
+
+import java.io.IOException;
+
+/**
+ * Streams a Table to an {@link Appendable} in one of the {@link Table.Format}s, cell by cell.
+ * <p>
+ * Output goes through a small buffer that is handed to the Appendable whenever it fills, so memory stays flat however large the table is.
+ * Numbers are appended directly rather than through {@code String.format}: whole numbers for the text layout are rounded half away from zero
+ * by hand, which is what {@code %.0f} does, and floats are appended in the same shortest form as {@code String.valueOf}.
+ *
+ * @author Alexander Paul
+ */
+final class TableWriter {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Magnitude up to which whole numbers are rounded by hand; {@code %.0f} is still used beyond it.
+	 */
+	private static final double MAX_ROUNDED = 1e15;
+
+	private final TableStorage table;
+	private final Boundary rowBounds, columnBounds;
+	private final Appendable out;
+
+	/**
+	 * Written to directly when the destination is itself a StringBuilder.
+	 */
+	private final StringBuilder buffer;
+
+	TableWriter(final TableStorage table, final Boundary rowBounds, final Boundary columnBounds, final Appendable out) {
+		this.table = table;
+		this.rowBounds = rowBounds;
+		this.columnBounds = columnBounds;
+		this.out = out;
+		this.buffer = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder(BUFFER_SIZE + 64);
+	}
+
+	void write(final Table.Format format) throws IOException {
+		switch(format) {
+		case TEXT: writeText(); break;
+		case JAVA: writeArrays("{\n", "   {", "}", "\n}\n", "Float.NaN", "f"); break;
+		case IOS: writeArrays("[\n", "   [", "]", "\n]\n", "nan", ""); break;
+		case CSV: writeCsv(); break;
+		case JSON: writeJson(); break;
+		}
+		flush();
+	}
+
+	/**
+	 * The layout of {@link Table#toString()}: column intervals across the top, row intervals down the side, whole numbers throughout.
+	 */
+	private void writeText() throws IOException {
+		buffer.append("      ");
+		for(float column : columnBounds.intervals) {
+			appendWhole(column, 3);
+			buffer.append(' ');
+		}
+		buffer.append('\n');
+
+		for(int row = 0; row < table.height(); row++) {
+			for(int col = 0; col < table.width(); col++) {
+				if(col == 0) {
+					appendWhole(rowBounds.intervals[row], 5);
+					buffer.append(' ');
+				}
+				appendWhole(table.get(row, col), 3);
+				buffer.append(' ');
+			}
+			buffer.append('\n');
+			checkFlush();
+		}
+	}
+
+	/**
+	 * Nested array literals, like {@link Table#toArrayFormat()} and {@link Table#toIOSFormat(Table)}.
+	 */
+	private void writeArrays(final String open, final String rowOpen, final String rowClose, final String close,
+			final String nan, final String suffix) throws IOException {
+		buffer.append(open);
+		for(int row = 0; row < table.height(); row++) {
+			if(row > 0) buffer.append(",\n");
+			buffer.append(rowOpen);
+			for(int col = 0; col < table.width(); col++) {
+				if(col > 0) buffer.append(", ");
+				final float value = table.get(row, col);
+				if(Float.isNaN(value)) buffer.append(nan);
+				else buffer.append(value).append(suffix);
+				checkFlush();
+			}
+			buffer.append(rowClose);
+		}
+		buffer.append(close);
+	}
+
+	/**
+	 * Column intervals in the header, each row led by its interval; NaN cells are left empty.
+	 */
+	private void writeCsv() throws IOException {
+		for(float column : columnBounds.intervals) buffer.append(',').append(column);
+		buffer.append('\n');
+
+		for(int row = 0; row < table.height(); row++) {
+			buffer.append(rowBounds.intervals[row]);
+			for(int col = 0; col < table.width(); col++) {
+				buffer.append(',');
+				final float value = table.get(row, col);
+				if(!Float.isNaN(value)) buffer.append(value);
+				checkFlush();
+			}
+			buffer.append('\n');
+		}
+	}
+
+	/**
+	 * An object of the row and column intervals and the rows of values; NaN and infinite values, which JSON can't express, are null.
+	 */
+	private void writeJson() throws IOException {
+		buffer.append("{\"rows\":");
+		appendJsonArray(rowBounds.intervals);
+		buffer.append(",\"columns\":");
+		appendJsonArray(columnBounds.intervals);
+		buffer.append(",\"values\":[");
+		for(int row = 0; row < table.height(); row++) {
+			if(row > 0) buffer.append(',');
+			buffer.append('[');
+			for(int col = 0; col < table.width(); col++) {
+				if(col > 0) buffer.append(',');
+				appendJson(table.get(row, col));
+				checkFlush();
+			}
+			buffer.append(']');
+		}
+		buffer.append("]}\n");
+	}
+
+	private void appendJsonArray(final float[] values) throws IOException {
+		buffer.append('[');
+		for(int i = 0; i < values.length; i++) {
+			if(i > 0) buffer.append(',');
+			appendJson(values[i]);
+			checkFlush();
+		}
+		buffer.append(']');
+	}
+
+	private void appendJson(final float value) {
+		if(Float.isFinite(value)) buffer.append(value);
+		else buffer.append("null");
+	}
+
+	/**
+	 * Appends value like {@code String.format("%" + width + ".0f", value)}.
+	 */
+	private void appendWhole(final float value, final int width) {
+		final int start = buffer.length();
+		if(Float.isNaN(value)) buffer.append("NaN");
+		else if(Float.isInfinite(value)) buffer.append(value > 0 ? "Infinity" : "-Infinity");
+		else if(Math.abs(value) >= MAX_ROUNDED) buffer.append(String.format("%.0f", value));
+		else {
+			//%.0f keeps the sign of values that round to zero, -0 included.
+			if(Float.floatToRawIntBits(value) < 0) buffer.append('-');
+			buffer.append(Math.round(Math.abs((double) value)));
+		}
+		for(int padding = width - (buffer.length() - start); padding > 0; padding--) buffer.insert(start, ' ');
+	}
+
+	private void checkFlush() throws IOException {
+		if(buffer != out && buffer.length() >= BUFFER_SIZE) flush();
+	}
+
+	private void flush() throws IOException {
+		if(buffer == out) return;
+		out.append(buffer);
+		buffer.setLength(0);
+	}
+
+}
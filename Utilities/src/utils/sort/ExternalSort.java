@@ -0,0 +1,484 @@
+package utils.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * This class sorts records of type T that don't fit in memory
+ * <p> using Comparator of type T.
+ * <p>
+ * Records are read in chunks of at most {@code runSize}, each chunk is sorted in memory by a Sort, and written to a temporary file as a run.
+ * The runs are then merged through a heap, {@code fanIn} at a time, in as many passes as it takes to get down to one.
+ * Records pass through files in the form given by a {@link RecordCodec}, over buffered file channels.
+ * <p>
+ * At most {@code runSize} records are held at once, plus one record and one buffer of {@code bufferSize} bytes for each run being merged.
+ * The sort is stable when the Sort used for runs is, since ties between runs go to the earlier one.
+ * Temporary files are deleted when the sort finishes, whether or not it succeeds.
+ * <blockquote>
+ * ExternalSort&lt;Trade&gt; sort = ExternalSort.builder(tradeCodec).runSort(new ParallelMergeSort&lt;&gt;()).runSize(1_000_000).build();
+ * sort.sort(Paths.get("trades.bin"), Paths.get("trades-sorted.bin"), byTime);
+ * </blockquote>
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ * @param <T> - The type specific to the this Sort Class.
+ */
+public class ExternalSort<T>
+{
+	/**
+	 * Writes records of type T to a stream and reads them back.
+	 * @param <T> - The type of record.
+	 */
+	public interface RecordCodec<T>
+	{
+		/**
+		 * @param record - The record to write.
+		 * @param out - The stream to write it to.
+		 */
+		void write(T record, DataOutput out) throws IOException;
+
+		/**
+		 * @param in - The stream to read a record from, positioned at the start of one written by {@link #write(Object, DataOutput)}.
+		 * @return The record read.
+		 */
+		T read(DataInput in) throws IOException;
+	}
+
+	private final RecordCodec<T> codec;
+	private final Sort<T> runSort;
+	private final int runSize;
+	private final int fanIn;
+	private final int bufferSize;
+	private final Path temporaryDirectory;
+
+	private ExternalSort(Builder<T> builder)
+	{
+		this.codec = builder.codec;
+		this.runSort = builder.runSort;
+		this.runSize = builder.runSize;
+		this.fanIn = builder.fanIn;
+		this.bufferSize = builder.bufferSize;
+		this.temporaryDirectory = builder.temporaryDirectory;
+	}
+
+	/**
+	 * @param codec - Writes and reads the records in temporary files.
+	 * @return Builder of an ExternalSort of records written and read by codec.
+	 */
+	public static <T> Builder<T> builder(RecordCodec<T> codec)
+	{
+		return new Builder<>(codec);
+	}
+
+	public static class Builder<T>
+	{
+		private final RecordCodec<T> codec;
+		private Sort<T> runSort = new ParallelMergeSort<>();
+		private int runSize = 1 << 20;
+		private int fanIn = 64;
+		private int bufferSize = 1 << 16;
+		private Path temporaryDirectory;
+
+		private Builder(RecordCodec<T> codec)
+		{
+			if(codec == null) throw new NullPointerException("Codec can't be null.");
+			this.codec = codec;
+		}
+
+		/**
+		 * @param runSort - Sorts each run in memory. ParallelMergeSort by default.
+		 */
+		public Builder<T> runSort(Sort<T> runSort)
+		{
+			if(runSort == null) throw new NullPointerException("Run sort can't be null.");
+			this.runSort = runSort;
+			return this;
+		}
+
+		/**
+		 * @param runSize - Most records held in memory at once, and so the length of each run. 2^20 by default.
+		 */
+		public Builder<T> runSize(int runSize)
+		{
+			if(runSize < 1) throw new IllegalArgumentException("Run size must be at least 1.");
+			this.runSize = runSize;
+			return this;
+		}
+
+		/**
+		 * @param fanIn - Most runs merged at once, and so the most files open at once. 64 by default.
+		 */
+		public Builder<T> fanIn(int fanIn)
+		{
+			if(fanIn < 2) throw new IllegalArgumentException("Fan in must be at least 2.");
+			this.fanIn = fanIn;
+			return this;
+		}
+
+		/**
+		 * @param bufferSize - Bytes buffered for each file read or written. 64 KiB by default.
+		 */
+		public Builder<T> bufferSize(int bufferSize)
+		{
+			if(bufferSize < 1) throw new IllegalArgumentException("Buffer size must be at least 1.");
+			this.bufferSize = bufferSize;
+			return this;
+		}
+
+		/**
+		 * @param temporaryDirectory - Directory runs are spilled to. The default temporary-file directory by default.
+		 */
+		public Builder<T> temporaryDirectory(Path temporaryDirectory)
+		{
+			this.temporaryDirectory = temporaryDirectory;
+			return this;
+		}
+
+		public ExternalSort<T> build()
+		{
+			return new ExternalSort<>(this);
+		}
+	}
+
+	/**
+	 * Sorts a file of records written back to back by the codec into another file of the same form.
+	 * @param input - File of records to sort.
+	 * @param output - File to write the sorted records to, replacing it if it exists. May be the input file.
+	 * @param compareStrategy - The Comparator used to sort the records.
+	 * @return Number of records sorted.
+	 */
+	public long sort(Path input, Path output, Comparator<T> compareStrategy) throws IOException
+	{
+		List<Run> runs = new ArrayList<>();
+		try
+		{
+			List<T> records;
+			try(DataInputStream in = openInput(input))
+			{
+				records = createRuns(new RecordIterator(in), compareStrategy, runs);
+			}
+			catch(UncheckedIOException e)
+			{
+				throw e.getCause();
+			}
+
+			try(DataOutputStream out = openOutput(output))
+			{
+				Consumer<T> sink = record -> {
+					try
+					{
+						codec.write(record, out);
+					}
+					catch(IOException e)
+					{
+						throw new UncheckedIOException(e);
+					}
+				};
+				return finish(records, runs, compareStrategy, sink);
+			}
+			catch(UncheckedIOException e)
+			{
+				throw e.getCause();
+			}
+		}
+		finally
+		{
+			delete(runs);
+		}
+	}
+
+	/**
+	 * Sorts records from any source, handing them to sink in order.
+	 * @param records - The records to sort.
+	 * @param compareStrategy - The Comparator used to sort the records.
+	 * @param sink - Receives the sorted records.
+	 * @return Number of records sorted.
+	 */
+	public long sort(Iterator<? extends T> records, Comparator<T> compareStrategy, Consumer<? super T> sink) throws IOException
+	{
+		List<Run> runs = new ArrayList<>();
+		try
+		{
+			return finish(createRuns(records, compareStrategy, runs), runs, compareStrategy, sink);
+		}
+		finally
+		{
+			delete(runs);
+		}
+	}
+
+	/**
+	 * Sorts and spills every full chunk of records as a run.
+	 * @return The last chunk, sorted, if it's the only one and so wasn't spilled; otherwise an empty list.
+	 */
+	private List<T> createRuns(Iterator<? extends T> records, Comparator<T> compareStrategy, List<Run> runs) throws IOException
+	{
+		List<T> chunk = new ArrayList<>(Math.min(runSize, 1 << 16));
+		while(records.hasNext())
+		{
+			chunk.add(records.next());
+			if(chunk.size() == runSize)
+			{
+				runSort.sort(chunk, compareStrategy);
+				runs.add(spill(chunk));
+				chunk.clear();
+			}
+		}
+
+		if(!chunk.isEmpty())
+		{
+			runSort.sort(chunk, compareStrategy);
+			//Input that fits in a single run never touches the disk.
+			if(!runs.isEmpty())
+			{
+				runs.add(spill(chunk));
+				chunk.clear();
+			}
+		}
+		return chunk;
+	}
+
+	private long finish(List<T> records, List<Run> runs, Comparator<T> compareStrategy, Consumer<? super T> sink) throws IOException
+	{
+		if(runs.isEmpty())
+		{
+			records.forEach(sink);
+			return records.size();
+		}
+
+		//Merging consecutive groups keeps earlier records in earlier runs, so ties still resolve in input order.
+		while(runs.size() > fanIn)
+		{
+			List<Run> merged = new ArrayList<>();
+			try
+			{
+				for(int from = 0; from < runs.size(); from += fanIn)
+				{
+					List<Run> group = runs.subList(from, Math.min(from + fanIn, runs.size()));
+					if(group.size() == 1) merged.add(group.get(0));
+					else
+					{
+						merged.add(mergeToRun(group, compareStrategy));
+						delete(group);
+					}
+				}
+			}
+			catch(IOException | RuntimeException e)
+			{
+				delete(merged);
+				throw e;
+			}
+			runs.clear();
+			runs.addAll(merged);
+		}
+		return merge(runs, compareStrategy, sink);
+	}
+
+	private Run spill(List<T> records) throws IOException
+	{
+		Run run = new Run(createTemporaryFile());
+		try(DataOutputStream out = openOutput(run.file))
+		{
+			for(T record : records) codec.write(record, out);
+		}
+		catch(IOException | RuntimeException e)
+		{
+			Files.deleteIfExists(run.file);
+			throw e;
+		}
+		run.count = records.size();
+		return run;
+	}
+
+	private Run mergeToRun(List<Run> group, Comparator<T> compareStrategy) throws IOException
+	{
+		Run run = new Run(createTemporaryFile());
+		try(DataOutputStream out = openOutput(run.file))
+		{
+			run.count = merge(group, compareStrategy, record -> {
+				try
+				{
+					codec.write(record, out);
+				}
+				catch(IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+		catch(UncheckedIOException e)
+		{
+			Files.deleteIfExists(run.file);
+			throw e.getCause();
+		}
+		catch(IOException | RuntimeException e)
+		{
+			Files.deleteIfExists(run.file);
+			throw e;
+		}
+		return run;
+	}
+
+	/**
+	 * k-way merges the runs through a heap of their current records, ties going to the earlier run.
+	 */
+	private long merge(List<Run> runs, Comparator<T> compareStrategy, Consumer<? super T> sink) throws IOException
+	{
+		PriorityQueue<Head> heads = new PriorityQueue<>(runs.size(), (a, b) -> {
+			int result = compareStrategy.compare(a.record, b.record);
+			return result != 0 ? result : Integer.compare(a.order, b.order);
+		});
+
+		List<DataInputStream> inputs = new ArrayList<>(runs.size());
+		try
+		{
+			for(int order = 0; order < runs.size(); order++)
+			{
+				Run run = runs.get(order);
+				DataInputStream in = openInput(run.file);
+				inputs.add(in);
+				Head head = new Head(in, run.count, order);
+				if(head.advance()) heads.add(head);
+			}
+
+			long merged = 0;
+			while(!heads.isEmpty())
+			{
+				Head head = heads.poll();
+				sink.accept(head.record);
+				merged++;
+				if(head.advance()) heads.add(head);
+			}
+			return merged;
+		}
+		finally
+		{
+			for(DataInputStream in : inputs) in.close();
+		}
+	}
+
+	private Path createTemporaryFile() throws IOException
+	{
+		return temporaryDirectory == null ? Files.createTempFile("run", ".sort") : Files.createTempFile(temporaryDirectory, "run", ".sort");
+	}
+
+	private DataInputStream openInput(Path file) throws IOException
+	{
+		return new DataInputStream(new BufferedInputStream(Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)), bufferSize));
+	}
+
+	private DataOutputStream openOutput(Path file) throws IOException
+	{
+		return new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)), bufferSize));
+	}
+
+	private static void delete(List<Run> runs) throws IOException
+	{
+		for(Run run : runs) Files.deleteIfExists(run.file);
+	}
+
+	/**
+	 * Temporary file of sorted records, with the number written so reading never relies on hitting the end of the file.
+	 */
+	private static final class Run
+	{
+		final Path file;
+		long count;
+
+		Run(Path file)
+		{
+			this.file = file;
+		}
+	}
+
+	/**
+	 * Current record of a run being merged.
+	 */
+	private final class Head
+	{
+		private final DataInputStream in;
+		private long remaining;
+		final int order;
+		T record;
+
+		Head(DataInputStream in, long count, int order)
+		{
+			this.in = in;
+			this.remaining = count;
+			this.order = order;
+		}
+
+		/**
+		 * @return whether there was another record to read.
+		 */
+		boolean advance() throws IOException
+		{
+			if(remaining == 0) return false;
+			record = codec.read(in);
+			remaining--;
+			return true;
+		}
+	}
+
+	/**
+	 * Reads records of an input file until it ends, which is only ever checked between records.
+	 */
+	private final class RecordIterator implements Iterator<T>
+	{
+		private final DataInputStream in;
+
+		RecordIterator(DataInputStream in)
+		{
+			this.in = in;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			try
+			{
+				in.mark(1);
+				if(in.read() < 0) return false;
+				in.reset();
+				return true;
+			}
+			catch(IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public T next()
+		{
+			if(!hasNext()) throw new NoSuchElementException();
+			try
+			{
+				return codec.read(in);
+			}
+			catch(IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package utils.sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * This Sort class measures another Sort as it sorts a list of type T
+ * <p> using Comparator of type T, for telling apart a slow comparator, an awkward distribution of data and an ill-suited algorithm.
+ * <p>
+ * Each call is measured into a {@link SortStatistics}, handed to the listener if there is one,
+ * or returned directly by {@link #measure(List, Comparator)}.
+ * <blockquote>
+ * Sort&lt;Order&gt; sort = new InstrumentedSort&lt;&gt;(new Quicksort&lt;&gt;(), statistics -&gt; log.info(statistics.toString()));
+ * </blockquote>
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ * @param <T> - The type specific to the this Sort Class.
+ */
+public class InstrumentedSort<T> implements Sort<T>
+{
+	private final Sort<T> sort;
+	private final Consumer<? super SortStatistics> listener;
+
+	/**
+	 * @param sort - The Sort to measure.
+	 */
+	public InstrumentedSort(Sort<T> sort)
+	{
+		this(sort, statistics -> {});
+	}
+
+	/**
+	 * @param sort - The Sort to measure.
+	 * @param listener - Receives the statistics of every call, on the thread that made it.
+	 */
+	public InstrumentedSort(Sort<T> sort, Consumer<? super SortStatistics> listener)
+	{
+		if(sort == null || listener == null) throw new NullPointerException("Sort and listener can't be null.");
+		this.sort = sort;
+		this.listener = listener;
+	}
+
+	@Override
+	public void sort(List<T> list, Comparator<T> compareStrategy)
+	{
+		measure(list, compareStrategy);
+	}
+
+	/**
+	 * Sorts the list, measuring the sort.
+	 * @param list - List to sort.
+	 * @param compareStrategy - The Comparator used to sort the list.
+	 * @return Statistics of the sort, which have been handed to the listener as well.
+	 */
+	public SortStatistics measure(List<T> list, Comparator<T> compareStrategy)
+	{
+		SortStatistics statistics = new SortStatistics(sort.getClass().getSimpleName(), list.size());
+		Comparator<T> counting = (a, b) -> {
+			statistics.compared();
+			return compareStrategy.compare(a, b);
+		};
+
+		SortStatistics previous = statistics.begin();
+		long start = System.nanoTime();
+		try
+		{
+			sort.sort(list, counting);
+		}
+		finally
+		{
+			statistics.end(previous, System.nanoTime() - start);
+		}
+		listener.accept(statistics);
+		return statistics;
+	}
+}
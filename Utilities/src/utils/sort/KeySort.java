@@ -0,0 +1,186 @@
+package utils.sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * This class sorts a list of type T by a key extracted from each element, extracting each key exactly once.
+ * <p>
+ * Sorting with a Comparator that derives its keys, by parsing a field or computing a score, derives them again on every comparison,
+ * O(n log n) times. Here the keys are extracted into an array up front, an array of indices is sorted by them,
+ * and the list is then permuted into that order in one pass.
+ * Primitive keys are sorted in primitive arrays, by the radix sorts of {@link PrimitiveSort}, without boxing or comparisons.
+ * <p>
+ * All of these sorts are stable.
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ */
+public final class KeySort
+{
+	/**
+	 * Size at or below which a range of indices is insertion sorted rather than merged.
+	 */
+	private static final int INSERTION_THRESHOLD = 16;
+
+	private KeySort() {}
+
+	/**
+	 * @param list - List to sort.
+	 * @param keyExtractor - Extracts the key to sort each element by, once per element.
+	 */
+	public static <T, K extends Comparable<? super K>> void sortBy(List<T> list, Function<? super T, ? extends K> keyExtractor)
+	{
+		sortBy(list, keyExtractor, Comparator.<K>naturalOrder());
+	}
+
+	/**
+	 * @param list - List to sort.
+	 * @param keyExtractor - Extracts the key to sort each element by, once per element.
+	 * @param keyOrder - The Comparator used to sort the keys.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T, K> void sortBy(List<T> list, Function<? super T, ? extends K> keyExtractor, Comparator<? super K> keyOrder)
+	{
+		Object[] elements = list.toArray();
+		int length = elements.length;
+		if(length < 2) return;
+
+		Object[] keys = new Object[length];
+		int[] indices = new int[length];
+		for(int i = 0; i < length; i++)
+		{
+			keys[i] = keyExtractor.apply((T) elements[i]);
+			indices[i] = i;
+		}
+
+		mergeSort(indices, new int[length], 0, length, (Comparator<Object>) keyOrder, keys);
+		permute(list, elements, indices);
+	}
+
+	/**
+	 * @param list - List to sort.
+	 * @param keyExtractor - Extracts the int key to sort each element by, once per element.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void sortByInt(List<T> list, ToIntFunction<? super T> keyExtractor)
+	{
+		Object[] elements = list.toArray();
+		int length = elements.length;
+		if(length < 2) return;
+
+		int[] keys = new int[length];
+		int[] indices = new int[length];
+		for(int i = 0; i < length; i++)
+		{
+			keys[i] = keyExtractor.applyAsInt((T) elements[i]);
+			indices[i] = i;
+		}
+
+		PrimitiveSort.sortIndexed(keys, indices);
+		permute(list, elements, indices);
+	}
+
+	/**
+	 * @param list - List to sort.
+	 * @param keyExtractor - Extracts the long key to sort each element by, once per element.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void sortByLong(List<T> list, ToLongFunction<? super T> keyExtractor)
+	{
+		Object[] elements = list.toArray();
+		int length = elements.length;
+		if(length < 2) return;
+
+		long[] keys = new long[length];
+		int[] indices = new int[length];
+		for(int i = 0; i < length; i++)
+		{
+			keys[i] = keyExtractor.applyAsLong((T) elements[i]);
+			indices[i] = i;
+		}
+
+		PrimitiveSort.sortIndexed(keys, indices);
+		permute(list, elements, indices);
+	}
+
+	/**
+	 * Keys are ordered as by {@code Double.compare}: -0.0 before 0.0, and NaN last.
+	 * @param list - List to sort.
+	 * @param keyExtractor - Extracts the double key to sort each element by, once per element.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void sortByDouble(List<T> list, ToDoubleFunction<? super T> keyExtractor)
+	{
+		Object[] elements = list.toArray();
+		int length = elements.length;
+		if(length < 2) return;
+
+		long[] keys = new long[length];
+		int[] indices = new int[length];
+		for(int i = 0; i < length; i++)
+		{
+			//Canonical NaN bits, with the magnitude of negatives flipped, compare as signed longs the way Double.compare orders the doubles.
+			long bits = Double.doubleToLongBits(keyExtractor.applyAsDouble((T) elements[i]));
+			keys[i] = bits ^ (bits >> 63 & Long.MAX_VALUE);
+			indices[i] = i;
+		}
+
+		PrimitiveSort.sortIndexed(keys, indices);
+		permute(list, elements, indices);
+	}
+
+	/**
+	 * Writes the elements back to the list in the order of indices, in one pass through a ListIterator.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> void permute(List<T> list, Object[] elements, int[] indices)
+	{
+		ListIterator<T> iterator = list.listIterator();
+		for(int index : indices)
+		{
+			iterator.next();
+			iterator.set((T) elements[index]);
+		}
+	}
+
+	/**
+	 * Stably sorts indices[low, high) by their keys, using the same range of work as scratch space.
+	 */
+	private static void mergeSort(int[] indices, int[] work, int low, int high, Comparator<Object> keyOrder, Object[] keys)
+	{
+		if(high - low <= INSERTION_THRESHOLD)
+		{
+			for(int i = low + 1; i < high; i++)
+			{
+				int index = indices[i];
+				int j = i - 1;
+				for(; j >= low && keyOrder.compare(keys[indices[j]], keys[index]) > 0; j--) indices[j + 1] = indices[j];
+				indices[j + 1] = index;
+			}
+			return;
+		}
+
+		int middle = (low + high) >>> 1;
+		mergeSort(indices, work, low, middle, keyOrder, keys);
+		mergeSort(indices, work, middle, high, keyOrder, keys);
+
+		//Already in order, as in sorted or nearly sorted input.
+		if(keyOrder.compare(keys[indices[middle - 1]], keys[indices[middle]]) <= 0) return;
+
+		System.arraycopy(indices, low, work, low, high - low);
+		int left = low, right = middle, index = low;
+		while(left < middle && right < high)
+		{
+			if(keyOrder.compare(keys[work[right]], keys[work[left]]) < 0) indices[index++] = work[right++];
+			else indices[index++] = work[left++];
+		}
+		System.arraycopy(work, left, indices, index, middle - left);
+		System.arraycopy(work, right, indices, index, high - right);
+	}
+}
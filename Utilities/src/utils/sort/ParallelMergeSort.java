@@ -0,0 +1,228 @@
+package utils.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This Sort class sorts a list of type T with a merge sort split across the threads of a {@code ForkJoinPool}
+ * <p> using Comparator of type T.
+ * <p>
+ * The list is copied to an array, which is cut in quarters until the pieces are no larger than the threshold.
+ * Pieces are sorted sequentially, then merged back up a level at a time. Merges are parallel too: a large merge is split
+ * by binary searching the larger run's middle element in the smaller run, so no single thread merges the whole array at the end.
+ * The sort is stable, and needs one extra array the size of the list.
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ * @param <T> - The type specific to the this Sort Class.
+ */
+public class ParallelMergeSort<T> implements Sort<T>
+{
+	/**
+	 * Default size at or below which pieces are sorted and merged sequentially.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+	private final int threshold;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Sorts on the common pool, with the default threshold.
+	 */
+	public ParallelMergeSort()
+	{
+		this(DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sorts on the common pool.
+	 * @param threshold - Size at or below which pieces are sorted and merged sequentially.
+	 */
+	public ParallelMergeSort(int threshold)
+	{
+		this(threshold, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param threshold - Size at or below which pieces are sorted and merged sequentially.
+	 * @param pool - The pool to sort on.
+	 */
+	public ParallelMergeSort(int threshold, ForkJoinPool pool)
+	{
+		if(threshold < 1) throw new IllegalArgumentException("Threshold must be at least 1.");
+		if(pool == null) throw new NullPointerException("Pool can't be null.");
+		this.threshold = threshold;
+		this.pool = pool;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(List<T> list, Comparator<T> compareStrategy)
+	{
+		if(list.size() < 2) return;
+
+		Object[] elements = list.toArray();
+		if(elements.length <= threshold) Arrays.sort((T[]) elements, compareStrategy);
+		else pool.invoke(new Sorter(elements, new Object[elements.length], 0, elements.length, compareStrategy));
+
+		ListIterator<T> iterator = list.listIterator();
+		for(Object element : elements)
+		{
+			iterator.next();
+			iterator.set((T) element);
+		}
+	}
+
+	/**
+	 * Sorts elements[low, high) in place, using the same range of work as scratch space.
+	 */
+	private final class Sorter extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] elements, work;
+		private final int low, high;
+		private final Comparator<T> compareStrategy;
+
+		Sorter(Object[] elements, Object[] work, int low, int high, Comparator<T> compareStrategy)
+		{
+			this.elements = elements;
+			this.work = work;
+			this.low = low;
+			this.high = high;
+			this.compareStrategy = compareStrategy;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected void compute()
+		{
+			if(high - low <= threshold)
+			{
+				//Arrays.sort on objects is a stable merge sort.
+				Arrays.sort((T[]) elements, low, high, compareStrategy);
+				return;
+			}
+
+			//Quarters are sorted in place, merged pairwise into work, and the halves merged back,
+			//so the result lands where it started without a copy.
+			int middle = (low + high) >>> 1;
+			int lowQuarter = (low + middle) >>> 1;
+			int highQuarter = (middle + high) >>> 1;
+
+			invokeAll(new Sorter(elements, work, low, lowQuarter, compareStrategy),
+					new Sorter(elements, work, lowQuarter, middle, compareStrategy),
+					new Sorter(elements, work, middle, highQuarter, compareStrategy),
+					new Sorter(elements, work, highQuarter, high, compareStrategy));
+
+			invokeAll(new Merger(elements, low, lowQuarter, lowQuarter, middle, work, low, compareStrategy),
+					new Merger(elements, middle, highQuarter, highQuarter, high, work, middle, compareStrategy));
+
+			new Merger(work, low, middle, middle, high, elements, low, compareStrategy).compute();
+		}
+	}
+
+	/**
+	 * Stably merges the adjacent sorted runs source[leftLow, leftHigh) and source[rightLow, rightHigh) into destination from destinationLow.
+	 * Elements of the left run come before equal elements of the right run.
+	 */
+	private final class Merger extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] source, destination;
+		private final int leftLow, leftHigh, rightLow, rightHigh, destinationLow;
+		private final Comparator<T> compareStrategy;
+
+		Merger(Object[] source, int leftLow, int leftHigh, int rightLow, int rightHigh, Object[] destination, int destinationLow, Comparator<T> compareStrategy)
+		{
+			this.source = source;
+			this.leftLow = leftLow;
+			this.leftHigh = leftHigh;
+			this.rightLow = rightLow;
+			this.rightHigh = rightHigh;
+			this.destination = destination;
+			this.destinationLow = destinationLow;
+			this.compareStrategy = compareStrategy;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected void compute()
+		{
+			int leftLength = leftHigh - leftLow;
+			int rightLength = rightHigh - rightLow;
+			//Two elements are merged directly whatever the threshold: splitting a pair leaves one half empty and the other the same merge again.
+			if(leftLength + rightLength <= Math.max(threshold, 2) || leftLength == 0 || rightLength == 0)
+			{
+				merge();
+				return;
+			}
+
+			int leftSplit, rightSplit;
+			if(leftLength >= rightLength)
+			{
+				//Right elements equal to the split go after it, keeping left elements first.
+				leftSplit = (leftLow + leftHigh) >>> 1;
+				rightSplit = lowerBound(rightLow, rightHigh, (T) source[leftSplit]);
+			}
+			else
+			{
+				//Left elements equal to the split go before it.
+				rightSplit = (rightLow + rightHigh) >>> 1;
+				leftSplit = upperBound(leftLow, leftHigh, (T) source[rightSplit]);
+			}
+
+			int destinationSplit = destinationLow + (leftSplit - leftLow) + (rightSplit - rightLow);
+			invokeAll(new Merger(source, leftLow, leftSplit, rightLow, rightSplit, destination, destinationLow, compareStrategy),
+					new Merger(source, leftSplit, leftHigh, rightSplit, rightHigh, destination, destinationSplit, compareStrategy));
+		}
+
+		@SuppressWarnings("unchecked")
+		private void merge()
+		{
+			int left = leftLow, right = rightLow, index = destinationLow;
+			while(left < leftHigh && right < rightHigh)
+			{
+				if(compareStrategy.compare((T) source[left], (T) source[right]) <= 0) destination[index++] = source[left++];
+				else destination[index++] = source[right++];
+			}
+			System.arraycopy(source, left, destination, index, leftHigh - left);
+			System.arraycopy(source, right, destination, index + leftHigh - left, rightHigh - right);
+		}
+
+		/**
+		 * @return first index in [low, high) whose element isn't less than key, or high.
+		 */
+		@SuppressWarnings("unchecked")
+		private int lowerBound(int low, int high, T key)
+		{
+			while(low < high)
+			{
+				int middle = (low + high) >>> 1;
+				if(compareStrategy.compare((T) source[middle], key) < 0) low = middle + 1;
+				else high = middle;
+			}
+			return low;
+		}
+
+		/**
+		 * @return first index in [low, high) whose element is greater than key, or high.
+		 */
+		@SuppressWarnings("unchecked")
+		private int upperBound(int low, int high, T key)
+		{
+			while(low < high)
+			{
+				int middle = (low + high) >>> 1;
+				if(compareStrategy.compare((T) source[middle], key) <= 0) low = middle + 1;
+				else high = middle;
+			}
+			return low;
+		}
+	}
+}
@@ -0,0 +1,422 @@
+package utils.sort;
+
+import java.util.Arrays;
+
+/**
+ * This class sorts arrays of primitives without boxing them or calling a Comparator.
+ * <p>
+ * Small arrays go to {@code Arrays.sort}. Large ones are radix sorted, least significant byte first, in one pass
+ * over the elements per byte of the key plus one pass to count every byte's digits up front.
+ * A pass is skipped when every element has the same digit in it, as happens in the high bytes of small numbers.
+ * <p>
+ * Floats and doubles sort in the same order as {@code Float.compare} and {@code Double.compare}:
+ * -0.0 before 0.0, and NaN last. NaNs keep their bits.
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ */
+public final class PrimitiveSort
+{
+	/**
+	 * Length from which arrays are radix sorted, below which {@code Arrays.sort} is quicker.
+	 */
+	static final int RADIX_THRESHOLD = 1 << 10;
+
+	/**
+	 * Length below which keys sorted with their indices are insertion sorted, since counting 256 digits a pass would dominate.
+	 */
+	private static final int INDEXED_INSERTION_THRESHOLD = 64;
+
+	private static final int RADIX = 256;
+	private static final int MASK = RADIX - 1;
+
+	private PrimitiveSort() {}
+
+	/**
+	 * @param array - Array to sort in ascending order.
+	 */
+	public static void sort(int[] array)
+	{
+		sort(array, 0, array.length);
+	}
+
+	/**
+	 * @param array - Array to sort a range of in ascending order.
+	 * @param from - The first index to sort, inclusive.
+	 * @param to - The last index to sort, exclusive.
+	 */
+	public static void sort(int[] array, int from, int to)
+	{
+		checkRange(array.length, from, to);
+		if(to - from < RADIX_THRESHOLD) Arrays.sort(array, from, to);
+		else radixSort(array, from, to);
+	}
+
+	/**
+	 * @param array - Array to sort in ascending order.
+	 */
+	public static void sort(long[] array)
+	{
+		sort(array, 0, array.length);
+	}
+
+	/**
+	 * @param array - Array to sort a range of in ascending order.
+	 * @param from - The first index to sort, inclusive.
+	 * @param to - The last index to sort, exclusive.
+	 */
+	public static void sort(long[] array, int from, int to)
+	{
+		checkRange(array.length, from, to);
+		if(to - from < RADIX_THRESHOLD) Arrays.sort(array, from, to);
+		else radixSort(array, from, to);
+	}
+
+	/**
+	 * @param array - Array to sort in ascending order, -0.0 before 0.0 and NaN last.
+	 */
+	public static void sort(float[] array)
+	{
+		sort(array, 0, array.length);
+	}
+
+	/**
+	 * @param array - Array to sort a range of in ascending order, -0.0 before 0.0 and NaN last.
+	 * @param from - The first index to sort, inclusive.
+	 * @param to - The last index to sort, exclusive.
+	 */
+	public static void sort(float[] array, int from, int to)
+	{
+		checkRange(array.length, from, to);
+		if(to - from < RADIX_THRESHOLD)
+		{
+			Arrays.sort(array, from, to);
+			return;
+		}
+
+		//NaNs aren't ordered by their bits, so they're moved past the numbers first.
+		int end = to;
+		for(int i = from; i < end; i++)
+		{
+			float value = array[i];
+			if(value != value)
+			{
+				array[i--] = array[--end];
+				array[end] = value;
+			}
+		}
+		if(end - from > 1) radixSort(array, from, end);
+	}
+
+	/**
+	 * @param array - Array to sort in ascending order, -0.0 before 0.0 and NaN last.
+	 */
+	public static void sort(double[] array)
+	{
+		sort(array, 0, array.length);
+	}
+
+	/**
+	 * @param array - Array to sort a range of in ascending order, -0.0 before 0.0 and NaN last.
+	 * @param from - The first index to sort, inclusive.
+	 * @param to - The last index to sort, exclusive.
+	 */
+	public static void sort(double[] array, int from, int to)
+	{
+		checkRange(array.length, from, to);
+		if(to - from < RADIX_THRESHOLD)
+		{
+			Arrays.sort(array, from, to);
+			return;
+		}
+
+		int end = to;
+		for(int i = from; i < end; i++)
+		{
+			double value = array[i];
+			if(value != value)
+			{
+				array[i--] = array[--end];
+				array[end] = value;
+			}
+		}
+		if(end - from > 1) radixSort(array, from, end);
+	}
+
+	private static void checkRange(int length, int from, int to)
+	{
+		if(from > to) throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+		if(from < 0 || to > length) throw new ArrayIndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length);
+	}
+
+	/**
+	 * Maps float bits to an int whose unsigned order is the float's order:
+	 * negative floats have every bit flipped, so larger magnitudes come first, and positive floats just their sign bit.
+	 */
+	static int sortableBits(float value)
+	{
+		int bits = Float.floatToRawIntBits(value);
+		return bits ^ (bits >> 31 | Integer.MIN_VALUE);
+	}
+
+	/**
+	 * @see #sortableBits(float)
+	 */
+	static long sortableBits(double value)
+	{
+		long bits = Double.doubleToRawLongBits(value);
+		return bits ^ (bits >> 63 | Long.MIN_VALUE);
+	}
+
+	/**
+	 * Turns the digit counts of each pass into the index each digit starts from.
+	 * @return whether the pass would move anything, meaning its digits aren't all the same.
+	 */
+	private static boolean offsets(int[] counts, int pass, int length)
+	{
+		int start = pass * RADIX;
+		int sum = 0;
+		for(int digit = start; digit < start + RADIX; digit++)
+		{
+			int count = counts[digit];
+			if(count == length) return false;
+			counts[digit] = sum;
+			sum += count;
+		}
+		return true;
+	}
+
+	/**
+	 * Stably sorts keys in ascending order, moving each index along with its key, so that indices end up in the order of their keys.
+	 * @param keys - The keys to sort.
+	 * @param indices - Values carried with the keys, as long as the keys.
+	 */
+	static void sortIndexed(int[] keys, int[] indices)
+	{
+		int length = keys.length;
+		if(length < INDEXED_INSERTION_THRESHOLD)
+		{
+			for(int i = 1; i < length; i++)
+			{
+				int key = keys[i], index = indices[i];
+				int j = i - 1;
+				for(; j >= 0 && keys[j] > key; j--)
+				{
+					keys[j + 1] = keys[j];
+					indices[j + 1] = indices[j];
+				}
+				keys[j + 1] = key;
+				indices[j + 1] = index;
+			}
+			return;
+		}
+
+		int[] counts = new int[Integer.BYTES * RADIX];
+		for(int key : keys)
+		{
+			key ^= Integer.MIN_VALUE;
+			counts[key & MASK]++;
+			counts[RADIX + (key >>> 8 & MASK)]++;
+			counts[2 * RADIX + (key >>> 16 & MASK)]++;
+			counts[3 * RADIX + (key >>> 24)]++;
+		}
+
+		int[] sourceKeys = keys, targetKeys = new int[length];
+		int[] sourceIndices = indices, targetIndices = new int[length];
+		for(int pass = 0; pass < Integer.BYTES; pass++)
+		{
+			if(!offsets(counts, pass, length)) continue;
+			int shift = pass * Byte.SIZE, base = pass * RADIX;
+			for(int i = 0; i < length; i++)
+			{
+				int key = sourceKeys[i];
+				int position = counts[base + ((key ^ Integer.MIN_VALUE) >>> shift & MASK)]++;
+				targetKeys[position] = key;
+				targetIndices[position] = sourceIndices[i];
+			}
+			int[] swap = sourceKeys; sourceKeys = targetKeys; targetKeys = swap;
+			swap = sourceIndices; sourceIndices = targetIndices; targetIndices = swap;
+		}
+		if(sourceKeys != keys)
+		{
+			System.arraycopy(sourceKeys, 0, keys, 0, length);
+			System.arraycopy(sourceIndices, 0, indices, 0, length);
+		}
+	}
+
+	/**
+	 * Stably sorts keys in ascending order, moving each index along with its key, so that indices end up in the order of their keys.
+	 * @param keys - The keys to sort.
+	 * @param indices - Values carried with the keys, as long as the keys.
+	 */
+	static void sortIndexed(long[] keys, int[] indices)
+	{
+		int length = keys.length;
+		if(length < INDEXED_INSERTION_THRESHOLD)
+		{
+			for(int i = 1; i < length; i++)
+			{
+				long key = keys[i];
+				int index = indices[i];
+				int j = i - 1;
+				for(; j >= 0 && keys[j] > key; j--)
+				{
+					keys[j + 1] = keys[j];
+					indices[j + 1] = indices[j];
+				}
+				keys[j + 1] = key;
+				indices[j + 1] = index;
+			}
+			return;
+		}
+
+		int[] counts = new int[Long.BYTES * RADIX];
+		for(long key : keys)
+		{
+			key ^= Long.MIN_VALUE;
+			for(int pass = 0; pass < Long.BYTES; pass++) counts[pass * RADIX + (int) (key >>> pass * Byte.SIZE & MASK)]++;
+		}
+
+		long[] sourceKeys = keys, targetKeys = new long[length];
+		int[] sourceIndices = indices, targetIndices = new int[length];
+		for(int pass = 0; pass < Long.BYTES; pass++)
+		{
+			if(!offsets(counts, pass, length)) continue;
+			int shift = pass * Byte.SIZE, base = pass * RADIX;
+			for(int i = 0; i < length; i++)
+			{
+				long key = sourceKeys[i];
+				int position = counts[base + (int) ((key ^ Long.MIN_VALUE) >>> shift & MASK)]++;
+				targetKeys[position] = key;
+				targetIndices[position] = sourceIndices[i];
+			}
+			long[] swapKeys = sourceKeys; sourceKeys = targetKeys; targetKeys = swapKeys;
+			int[] swapIndices = sourceIndices; sourceIndices = targetIndices; targetIndices = swapIndices;
+		}
+		if(sourceKeys != keys)
+		{
+			System.arraycopy(sourceKeys, 0, keys, 0, length);
+			System.arraycopy(sourceIndices, 0, indices, 0, length);
+		}
+	}
+
+	private static void radixSort(int[] array, int from, int to)
+	{
+		int length = to - from;
+		int[] counts = new int[Integer.BYTES * RADIX];
+		for(int i = from; i < to; i++)
+		{
+			int key = array[i] ^ Integer.MIN_VALUE;
+			counts[key & MASK]++;
+			counts[RADIX + (key >>> 8 & MASK)]++;
+			counts[2 * RADIX + (key >>> 16 & MASK)]++;
+			counts[3 * RADIX + (key >>> 24)]++;
+		}
+
+		int[] source = array, target = new int[length];
+		int sourceFrom = from, targetFrom = 0;
+		for(int pass = 0; pass < Integer.BYTES; pass++)
+		{
+			if(!offsets(counts, pass, length)) continue;
+			int shift = pass * Byte.SIZE, base = pass * RADIX;
+			for(int i = sourceFrom; i < sourceFrom + length; i++)
+			{
+				int value = source[i];
+				target[targetFrom + counts[base + ((value ^ Integer.MIN_VALUE) >>> shift & MASK)]++] = value;
+			}
+			int[] swap = source; source = target; target = swap;
+			int swapFrom = sourceFrom; sourceFrom = targetFrom; targetFrom = swapFrom;
+		}
+		if(source != array) System.arraycopy(source, sourceFrom, array, from, length);
+	}
+
+	private static void radixSort(long[] array, int from, int to)
+	{
+		int length = to - from;
+		int[] counts = new int[Long.BYTES * RADIX];
+		for(int i = from; i < to; i++)
+		{
+			long key = array[i] ^ Long.MIN_VALUE;
+			for(int pass = 0; pass < Long.BYTES; pass++) counts[pass * RADIX + (int) (key >>> pass * Byte.SIZE & MASK)]++;
+		}
+
+		long[] source = array, target = new long[length];
+		int sourceFrom = from, targetFrom = 0;
+		for(int pass = 0; pass < Long.BYTES; pass++)
+		{
+			if(!offsets(counts, pass, length)) continue;
+			int shift = pass * Byte.SIZE, base = pass * RADIX;
+			for(int i = sourceFrom; i < sourceFrom + length; i++)
+			{
+				long value = source[i];
+				target[targetFrom + counts[base + (int) ((value ^ Long.MIN_VALUE) >>> shift & MASK)]++] = value;
+			}
+			long[] swap = source; source = target; target = swap;
+			int swapFrom = sourceFrom; sourceFrom = targetFrom; targetFrom = swapFrom;
+		}
+		if(source != array) System.arraycopy(source, sourceFrom, array, from, length);
+	}
+
+	/**
+	 * Sorts a range free of NaN by the sortable bits of its values.
+	 */
+	private static void radixSort(float[] array, int from, int to)
+	{
+		int length = to - from;
+		int[] counts = new int[Integer.BYTES * RADIX];
+		for(int i = from; i < to; i++)
+		{
+			int key = sortableBits(array[i]);
+			counts[key & MASK]++;
+			counts[RADIX + (key >>> 8 & MASK)]++;
+			counts[2 * RADIX + (key >>> 16 & MASK)]++;
+			counts[3 * RADIX + (key >>> 24)]++;
+		}
+
+		float[] source = array, target = new float[length];
+		int sourceFrom = from, targetFrom = 0;
+		for(int pass = 0; pass < Integer.BYTES; pass++)
+		{
+			if(!offsets(counts, pass, length)) continue;
+			int shift = pass * Byte.SIZE, base = pass * RADIX;
+			for(int i = sourceFrom; i < sourceFrom + length; i++)
+			{
+				float value = source[i];
+				target[targetFrom + counts[base + (sortableBits(value) >>> shift & MASK)]++] = value;
+			}
+			float[] swap = source; source = target; target = swap;
+			int swapFrom = sourceFrom; sourceFrom = targetFrom; targetFrom = swapFrom;
+		}
+		if(source != array) System.arraycopy(source, sourceFrom, array, from, length);
+	}
+
+	/**
+	 * Sorts a range free of NaN by the sortable bits of its values.
+	 */
+	private static void radixSort(double[] array, int from, int to)
+	{
+		int length = to - from;
+		int[] counts = new int[Long.BYTES * RADIX];
+		for(int i = from; i < to; i++)
+		{
+			long key = sortableBits(array[i]);
+			for(int pass = 0; pass < Long.BYTES; pass++) counts[pass * RADIX + (int) (key >>> pass * Byte.SIZE & MASK)]++;
+		}
+
+		double[] source = array, target = new double[length];
+		int sourceFrom = from, targetFrom = 0;
+		for(int pass = 0; pass < Long.BYTES; pass++)
+		{
+			if(!offsets(counts, pass, length)) continue;
+			int shift = pass * Byte.SIZE, base = pass * RADIX;
+			for(int i = sourceFrom; i < sourceFrom + length; i++)
+			{
+				double value = source[i];
+				target[targetFrom + counts[base + (int) (sortableBits(value) >>> shift & MASK)]++] = value;
+			}
+			double[] swap = source; source = target; target = swap;
+			int swapFrom = sourceFrom; sourceFrom = targetFrom; targetFrom = swapFrom;
+		}
+		if(source != array) System.arraycopy(source, sourceFrom, array, from, length);
+	}
+}
@@ -6,54 +6,138 @@ import java.util.List;
 /**
  * This Sort class sorts uses the quicksort algorithm to sort a list of type T
  * <p> using Comparator of type T.
+ * <p>
+ * The quicksort is an introsort, so it stays O(n log n) on any input, sorted and reverse sorted included:
+ * <ul>
+ * <li>The pivot is the median of the first, middle and last elements.</li>
+ * <li>Ranges of up to {@value #INSERTION_THRESHOLD} elements are finished with an insertion sort.</li>
+ * <li>Only the smaller side of a partition is recursed into, and the larger side is looped on, so the stack stays O(log n) deep.</li>
+ * <li>Once partitioning goes 2 log2(n) levels deep without finishing, the range is heapsorted instead.</li>
+ * </ul>
+ * The sort isn't stable.
  * @author Alexander J Paul
  * @since 10-OCT-2017
- * @version 1.3
+ * @version 1.4
  * @param <T> - The type specific to the this Sort Class.
  */
-public class Quicksort<T> implements Sort<T> 
+public class Quicksort<T> implements Sort<T>
 {
+	/**
+	 * Size at or below which a range is insertion sorted rather than partitioned.
+	 */
+	static final int INSERTION_THRESHOLD = 16;
+
 	@Override
-	public void sort(List<T> list, Comparator<T> compareStrategy) {
-		quickSort(list, 0, list.size() - 1, compareStrategy);
+	public void sort(List<T> list, Comparator<T> compareStrategy)
+	{
+		if(Sort.sortSequentialList(this, list, compareStrategy)) return;
+		
+		int size = list.size();
+		if(size < 2) return;
+		quickSort(list, 0, size - 1, 2 * (31 - Integer.numberOfLeadingZeros(size)), 1, compareStrategy);
 	}
 
 	//helper method
-	private void quickSort(List<T> list, int front, int end, Comparator<T> compareStrategy) 
-	{	
-		int pivot_marker = end;
-		
-		int left_marker = front;
-		
-		int right_marker =  end - 1;
-		
-		Outer:
-		while(true)
+	private void quickSort(List<T> list, int front, int end, int depthLimit, int depth, Comparator<T> compareStrategy)
+	{
+		if(SortStatistics.ENABLED) SortStatistics.reached(depth);
+		while(end - front >= INSERTION_THRESHOLD)
 		{
-			while(true)
+			if(depthLimit-- == 0)
+			{
+				heapSort(list, front, end, compareStrategy);
+				return;
+			}
+
+			int pivot_marker = partition(list, front, end, compareStrategy);
+
+			if(pivot_marker - front < end - pivot_marker)
 			{
-				//see(list, pivot_marker, left_marker, right_marker, monster -> String.format("%5d", monster.getAttack()));
-				if(left_marker == pivot_marker) break Outer;
-				if(compareStrategy.compare(list.get(left_marker), list.get(pivot_marker)) >= 0) break;
-				left_marker++;
+				quickSort(list, front, pivot_marker - 1, depthLimit, depth + 1, compareStrategy);
+				front = pivot_marker + 1;
 			}
-			
-			while(true)
+			else
 			{
-				//see(monsters, pivot_marker, left_marker, right_marker, monster -> String.format("%5d", monster.getAttack()));
-				if(right_marker <= left_marker) break Outer;
-				if(compareStrategy.compare(list.get(right_marker), list.get(pivot_marker)) < 0) break;
-				right_marker--;
+				quickSort(list, pivot_marker + 1, end, depthLimit, depth + 1, compareStrategy);
+				end = pivot_marker - 1;
 			}
-			
+		}
+		insertionSort(list, front, end, compareStrategy);
+	}
+
+	/**
+	 * Partitions around the median of the front, middle and end elements.
+	 * Both markers stop on elements equal to the pivot, so runs of duplicates split evenly instead of degrading.
+	 * @return index the pivot ends up at; everything before it is no greater and everything after no less.
+	 */
+	private int partition(List<T> list, int front, int end, Comparator<T> compareStrategy)
+	{
+		int middle = (front + end) >>> 1;
+		if(compareStrategy.compare(list.get(middle), list.get(front)) < 0) swap(list, middle, front);
+		if(compareStrategy.compare(list.get(end), list.get(front)) < 0) swap(list, end, front);
+		if(compareStrategy.compare(list.get(end), list.get(middle)) < 0) swap(list, end, middle);
+
+		//front and end now bound the scan, so the markers can't run off the range.
+		int pivot_marker = end - 1;
+		swap(list, middle, pivot_marker);
+		T pivot = list.get(pivot_marker);
+
+		int left_marker = front;
+		int right_marker = pivot_marker;
+
+		while(true)
+		{
+			while(compareStrategy.compare(list.get(++left_marker), pivot) < 0);
+			while(compareStrategy.compare(pivot, list.get(--right_marker)) < 0);
+			if(left_marker >= right_marker) break;
 			swap(list, left_marker, right_marker);
-		
 		}
-		
+
 		swap(list, left_marker, pivot_marker);
-		
-		if(left_marker - front > 1) quickSort(list, front , left_marker - 1, compareStrategy); 	
-		if(end - left_marker > 1) quickSort(list, left_marker + 1, end, compareStrategy);
+		return left_marker;
+	}
+
+	private void insertionSort(List<T> list, int front, int end, Comparator<T> compareStrategy)
+	{
+		for(int i = front + 1; i <= end; i++)
+		{
+			T element = list.get(i);
+			int j = i - 1;
+			while(j >= front && compareStrategy.compare(element, list.get(j)) < 0)
+			{
+				list.set(j + 1, list.get(j));
+				j--;
+			}
+			list.set(j + 1, element);
+		}
 	}
-	
+
+	private void heapSort(List<T> list, int front, int end, Comparator<T> compareStrategy)
+	{
+		int size = end - front + 1;
+		for(int parent = size / 2 - 1; parent >= 0; parent--) siftDown(list, front, parent, size, compareStrategy);
+		for(int last = size - 1; last > 0; last--)
+		{
+			swap(list, front, front + last);
+			siftDown(list, front, 0, last, compareStrategy);
+		}
+	}
+
+	/**
+	 * Restores the max-heap of size elements from front below parent.
+	 */
+	private void siftDown(List<T> list, int front, int parent, int size, Comparator<T> compareStrategy)
+	{
+		T element = list.get(front + parent);
+		int child;
+		while((child = 2 * parent + 1) < size)
+		{
+			if(child + 1 < size && compareStrategy.compare(list.get(front + child + 1), list.get(front + child)) > 0) child++;
+			if(compareStrategy.compare(list.get(front + child), element) <= 0) break;
+			list.set(front + parent, list.get(front + child));
+			parent = child;
+		}
+		list.set(front + parent, element);
+	}
+
 }
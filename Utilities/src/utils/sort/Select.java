@@ -0,0 +1,306 @@
+package utils.sort;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+
+/**
+ * This class selects the first elements of a list of type T, in the order a Sort would put them,
+ * <p> using Comparator of type T, without sorting the whole list.
+ * <ul>
+ * <li>{@link #nthElement(List, int, Comparator)} places one element where sorting would, in O(n).</li>
+ * <li>{@link #topK(Iterable, int, Comparator)} returns the first k elements, sorted, in O(n log k).</li>
+ * <li>{@link #partialSort(List, int, Comparator)} sorts the first k positions of the list in place, in O(n log k).</li>
+ * </ul>
+ * For the largest elements rather than the smallest, pass the Comparator reversed.
+ * Nothing is allocated beyond the k elements topK returns, except that lists without fast positional access,
+ * such as LinkedList, are worked on as an array copy, as in {@link Sort#sortSequentialList(Sort, List, Comparator)}.
+ * None of these are stable.
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ */
+public final class Select
+{
+	/**
+	 * Size at or below which a range is insertion sorted rather than partitioned.
+	 */
+	private static final int INSERTION_THRESHOLD = 16;
+
+	private Select() {}
+
+	/**
+	 * Rearranges the list so that the element at index n is the one that would be there if it were sorted,
+	 * with no element before it greater and no element after it less.
+	 * <p>
+	 * Uses introselect: quickselect with median-of-three pivots, switching to median-of-medians pivots
+	 * if partitioning doesn't converge, which guarantees O(n) on any input.
+	 * @param list - List to rearrange.
+	 * @param n - The index to place, from 0.
+	 * @param compareStrategy - The Comparator used to order the list.
+	 * @return The element now at index n.
+	 */
+	public static <T> T nthElement(List<T> list, int n, Comparator<T> compareStrategy)
+	{
+		if(n < 0 || n >= list.size()) throw new IndexOutOfBoundsException("Index: " + n + ", Size: " + list.size());
+		if(!(list instanceof RandomAccess))
+		{
+			List<T> copy = copyOf(list);
+			T element = nthElement(copy, n, compareStrategy);
+			writeBack(copy, list);
+			return element;
+		}
+
+		select(list, 0, list.size() - 1, n, 2 * (31 - Integer.numberOfLeadingZeros(list.size())), compareStrategy);
+		return list.get(n);
+	}
+
+	/**
+	 * Finds the first k elements in the order of compareStrategy, keeping only the best k seen in a bounded max-heap as it goes.
+	 * @param elements - The elements to select from, read once, in any order.
+	 * @param k - How many to select.
+	 * @param compareStrategy - The Comparator used to order the elements.
+	 * @return The first k elements, or all of them if there are fewer, sorted.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> topK(Iterable<? extends T> elements, int k, Comparator<T> compareStrategy)
+	{
+		if(k < 0) throw new IllegalArgumentException("k can't be negative.");
+		if(k == 0) return Collections.emptyList();
+
+		//Sized exactly when the number of elements is known, otherwise grown towards k, so a large k over few elements doesn't allocate k up front.
+		Object[] heap = new Object[elements instanceof Collection ? Math.min(k, ((Collection<?>) elements).size()) : Math.min(k, 16)];
+		int size = 0;
+		for(T element : elements)
+		{
+			if(size < k)
+			{
+				if(size == heap.length) heap = Arrays.copyOf(heap, (int) Math.min(k, Math.max(16, size * 2L)));
+				heap[size] = element;
+				siftUp(heap, size++, compareStrategy);
+			}
+			else if(compareStrategy.compare(element, (T) heap[0]) < 0)
+			{
+				heap[0] = element;
+				siftDown(heap, 0, size, compareStrategy);
+			}
+		}
+		if(size == 0) return Collections.emptyList();
+
+		for(int last = size - 1; last > 0; last--)
+		{
+			Object top = heap[0];
+			heap[0] = heap[last];
+			heap[last] = top;
+			siftDown(heap, 0, last, compareStrategy);
+		}
+		List<T> selected = (List<T>) Arrays.asList(heap);
+		return size == heap.length ? selected : selected.subList(0, size);
+	}
+
+	/**
+	 * Rearranges the list so that its first k positions hold its first k elements in sorted order.
+	 * The rest of the list is left in no particular order.
+	 * @param list - List to rearrange.
+	 * @param k - How many positions to sort; all of them if it's larger than the list.
+	 * @param compareStrategy - The Comparator used to order the list.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void partialSort(List<T> list, int k, Comparator<T> compareStrategy)
+	{
+		if(k < 0) throw new IllegalArgumentException("k can't be negative.");
+		int size = list.size();
+		k = Math.min(k, size);
+		if(k == 0) return;
+		if(!(list instanceof RandomAccess))
+		{
+			List<T> copy = copyOf(list);
+			partialSort(copy, k, compareStrategy);
+			writeBack(copy, list);
+			return;
+		}
+
+		//Max-heap of the first k, through which every later element smaller than its top is passed.
+		for(int parent = k / 2 - 1; parent >= 0; parent--) siftDown(list, parent, k, compareStrategy);
+		for(int i = k; i < size; i++)
+		{
+			if(compareStrategy.compare(list.get(i), list.get(0)) < 0)
+			{
+				T element = list.get(i);
+				list.set(i, list.get(0));
+				list.set(0, element);
+				siftDown(list, 0, k, compareStrategy);
+			}
+		}
+
+		for(int last = k - 1; last > 0; last--)
+		{
+			T top = list.get(0);
+			list.set(0, list.get(last));
+			list.set(last, top);
+			siftDown(list, 0, last, compareStrategy);
+		}
+	}
+
+	private static <T> void select(List<T> list, int front, int end, int n, int depthLimit, Comparator<T> compareStrategy)
+	{
+		while(end - front >= INSERTION_THRESHOLD)
+		{
+			int pivot;
+			if(depthLimit > 0)
+			{
+				depthLimit--;
+				pivot = medianOfThree(list, front, (front + end) >>> 1, end, compareStrategy);
+			}
+			else
+			{
+				pivot = medianOfMedians(list, front, end, compareStrategy);
+			}
+
+			pivot = partition(list, front, end, pivot, compareStrategy);
+			if(pivot == n) return;
+			if(n < pivot) end = pivot - 1;
+			else front = pivot + 1;
+		}
+		insertionSort(list, front, end, compareStrategy);
+	}
+
+	private static <T> int medianOfThree(List<T> list, int a, int b, int c, Comparator<T> compareStrategy)
+	{
+		T first = list.get(a), second = list.get(b), third = list.get(c);
+		if(compareStrategy.compare(first, second) < 0)
+		{
+			if(compareStrategy.compare(second, third) < 0) return b;
+			return compareStrategy.compare(first, third) < 0 ? c : a;
+		}
+		if(compareStrategy.compare(first, third) < 0) return a;
+		return compareStrategy.compare(second, third) < 0 ? c : b;
+	}
+
+	/**
+	 * Gathers the medians of each group of five at the front of the range, and selects the median of those.
+	 * @return Index of a pivot with at least 30% of the range on either side of it.
+	 */
+	private static <T> int medianOfMedians(List<T> list, int front, int end, Comparator<T> compareStrategy)
+	{
+		int medians = front;
+		for(int group = front; group <= end; group += 5)
+		{
+			int groupEnd = Math.min(group + 4, end);
+			insertionSort(list, group, groupEnd, compareStrategy);
+			swap(list, medians++, (group + groupEnd) >>> 1);
+		}
+		int middle = (front + medians - 1) >>> 1;
+		select(list, front, medians - 1, middle, 0, compareStrategy);
+		return middle;
+	}
+
+	/**
+	 * Partitions around the element at pivot. Both markers stop on elements equal to it, so duplicates split evenly.
+	 * @return Index the pivot ends up at.
+	 */
+	private static <T> int partition(List<T> list, int front, int end, int pivot, Comparator<T> compareStrategy)
+	{
+		swap(list, front, pivot);
+		T pivotElement = list.get(front);
+		int left = front;
+		int right = end + 1;
+		while(true)
+		{
+			while(++left <= end && compareStrategy.compare(list.get(left), pivotElement) < 0);
+			while(compareStrategy.compare(pivotElement, list.get(--right)) < 0);
+			if(left >= right) break;
+			swap(list, left, right);
+		}
+		swap(list, front, right);
+		return right;
+	}
+
+	private static <T> void insertionSort(List<T> list, int front, int end, Comparator<T> compareStrategy)
+	{
+		for(int i = front + 1; i <= end; i++)
+		{
+			T element = list.get(i);
+			int j = i - 1;
+			while(j >= front && compareStrategy.compare(element, list.get(j)) < 0)
+			{
+				list.set(j + 1, list.get(j));
+				j--;
+			}
+			list.set(j + 1, element);
+		}
+	}
+
+	private static <T> void swap(List<T> list, int indexA, int indexB)
+	{
+		T element = list.get(indexA);
+		list.set(indexA, list.get(indexB));
+		list.set(indexB, element);
+	}
+
+	/**
+	 * Restores the max-heap of the list's first size elements below parent.
+	 */
+	private static <T> void siftDown(List<T> list, int parent, int size, Comparator<T> compareStrategy)
+	{
+		T element = list.get(parent);
+		int child;
+		while((child = 2 * parent + 1) < size)
+		{
+			if(child + 1 < size && compareStrategy.compare(list.get(child + 1), list.get(child)) > 0) child++;
+			if(compareStrategy.compare(list.get(child), element) <= 0) break;
+			list.set(parent, list.get(child));
+			parent = child;
+		}
+		list.set(parent, element);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void siftDown(Object[] heap, int parent, int size, Comparator<T> compareStrategy)
+	{
+		Object element = heap[parent];
+		int child;
+		while((child = 2 * parent + 1) < size)
+		{
+			if(child + 1 < size && compareStrategy.compare((T) heap[child + 1], (T) heap[child]) > 0) child++;
+			if(compareStrategy.compare((T) heap[child], (T) element) <= 0) break;
+			heap[parent] = heap[child];
+			parent = child;
+		}
+		heap[parent] = element;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void siftUp(Object[] heap, int child, Comparator<T> compareStrategy)
+	{
+		Object element = heap[child];
+		while(child > 0)
+		{
+			int parent = (child - 1) >>> 1;
+			if(compareStrategy.compare((T) element, (T) heap[parent]) <= 0) break;
+			heap[child] = heap[parent];
+			child = parent;
+		}
+		heap[child] = element;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> copyOf(List<T> list)
+	{
+		return (List<T>) Arrays.asList(list.toArray());
+	}
+
+	private static <T> void writeBack(List<T> copy, List<T> list)
+	{
+		ListIterator<T> iterator = list.listIterator();
+		for(T element : copy)
+		{
+			iterator.next();
+			iterator.set(element);
+		}
+	}
+}
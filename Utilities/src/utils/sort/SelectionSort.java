@@ -16,6 +16,8 @@ public class SelectionSort<T> implements Sort<T> {
 	@Override
 	public void sort(List<T> list, Comparator<T> compareStrategy)
 	{
+		if(Sort.sortSequentialList(this, list, compareStrategy)) return;
+		
 		for(int end = list.size() - 1; end > 0; end--) 
 		{	
 			int maxIndex = end;		
@@ -1,7 +1,10 @@
 package utils.sort;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
 
 /**
  * This abstract class is the template used for sorting a list of type T
@@ -20,15 +23,43 @@ public interface Sort<T> {
 	public void sort(List<T> list, Comparator<T> compareStrategy);
 	
 	/**
+	 * Swaps are counted into the {@link SortStatistics} of an {@link InstrumentedSort} when run with {@code -Dutils.sort.instrument=true}.
 	 * @param list - List to swap 2 elements in.
 	 * @param indexA - The first element index to swap.
 	 * @param indexB - The second element index to swap.
 	 */
 	default void swap(List<T> list, int indexA, int indexB) 
 	{		
+		if(SortStatistics.ENABLED) SortStatistics.swapped();
 		T tempElement = list.get(indexA);
 		list.set(indexA, list.get(indexB));
 		list.set(indexB, tempElement);
 	}
 	
+	/**
+	 * Sorts a list without fast positional access, such as a LinkedList, on which each get and set would cost O(n).
+	 * The elements are copied to an array, sorted there by sort, and written back in one pass through a ListIterator.
+	 * Implementations call this first, and sort the list in place only if it returns false.
+	 * @param sort - The Sort to sort the copy with.
+	 * @param list - List to sort.
+	 * @param compareStrategy - The Comparator used to sort the list.
+	 * @return true if the list wasn't RandomAccess and has been sorted, false if it's left for the caller.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> boolean sortSequentialList(Sort<T> sort, List<T> list, Comparator<T> compareStrategy)
+	{
+		if(list instanceof RandomAccess) return false;
+		
+		Object[] elements = list.toArray();
+		sort.sort((List<T>) Arrays.asList(elements), compareStrategy);
+		
+		ListIterator<T> iterator = list.listIterator();
+		for(Object element : elements)
+		{
+			iterator.next();
+			iterator.set((T) element);
+		}
+		return true;
+	}
+	
 }
@@ -0,0 +1,141 @@
+package utils.sort;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of the work done by one call to a Sort, as measured by an {@link InstrumentedSort}.
+ * <p>
+ * Comparisons and elapsed time are always measured, by wrapping the Comparator and timing the call.
+ * Swaps made through {@link Sort#swap(java.util.List, int, int)} and the deepest recursion reached are only recorded
+ * when the JVM runs with {@code -Dutils.sort.instrument=true}, and read 0 otherwise.
+ * The algorithms check that flag against a static final constant, so without it the JIT compiles the hooks away entirely,
+ * and sorts that aren't instrumented pay nothing either way.
+ * <p>
+ * Swaps and depth are recorded on the thread that called the sort, so work a sort hands to other threads,
+ * as ParallelMergeSort does, only shows up in the comparisons.
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ */
+public final class SortStatistics
+{
+	/**
+	 * Whether the algorithms record swaps and recursion depth at all.
+	 */
+	static final boolean ENABLED = Boolean.getBoolean("utils.sort.instrument");
+
+	/**
+	 * Statistics of the instrumented sort running on each thread, if any.
+	 */
+	private static final ThreadLocal<SortStatistics> CURRENT = new ThreadLocal<>();
+
+	private final String algorithm;
+	private final int size;
+
+	private final LongAdder comparisons = new LongAdder();
+	private long swaps;
+	private int maxDepth;
+	private long nanos;
+
+	SortStatistics(String algorithm, int size)
+	{
+		this.algorithm = algorithm;
+		this.size = size;
+	}
+
+	/**
+	 * Makes these the statistics the algorithms record into on this thread.
+	 * @return The statistics they recorded into before, to hand back to {@link #end(SortStatistics, long)}.
+	 */
+	SortStatistics begin()
+	{
+		if(!ENABLED) return null;
+		SortStatistics previous = CURRENT.get();
+		CURRENT.set(this);
+		return previous;
+	}
+
+	/**
+	 * @param previous - The statistics returned by {@link #begin()}, restored for this thread.
+	 * @param nanos - Time the sort took.
+	 */
+	void end(SortStatistics previous, long nanos)
+	{
+		this.nanos = nanos;
+		if(!ENABLED) return;
+		if(previous == null) CURRENT.remove();
+		else CURRENT.set(previous);
+	}
+
+	void compared()
+	{
+		comparisons.increment();
+	}
+
+	/**
+	 * Records a swap into the instrumented sort running on this thread, if any. Only called when {@link #ENABLED}.
+	 */
+	static void swapped()
+	{
+		SortStatistics statistics = CURRENT.get();
+		if(statistics != null) statistics.swaps++;
+	}
+
+	/**
+	 * Records reaching a recursion depth, from 1 for the outermost call, in the instrumented sort running on this thread, if any.
+	 * Only called when {@link #ENABLED}.
+	 */
+	static void reached(int depth)
+	{
+		SortStatistics statistics = CURRENT.get();
+		if(statistics != null && depth > statistics.maxDepth) statistics.maxDepth = depth;
+	}
+
+	/**
+	 * @return Simple name of the Sort measured.
+	 */
+	public String getAlgorithm()
+	{
+		return algorithm;
+	}
+
+	/**
+	 * @return Number of elements sorted.
+	 */
+	public int getSize()
+	{
+		return size;
+	}
+
+	public long getComparisons()
+	{
+		return comparisons.sum();
+	}
+
+	/**
+	 * @return Swaps made through Sort.swap, or 0 unless {@code -Dutils.sort.instrument=true}.
+	 */
+	public long getSwaps()
+	{
+		return swaps;
+	}
+
+	/**
+	 * @return Deepest recursion reached, or 0 for algorithms that don't recurse or unless {@code -Dutils.sort.instrument=true}.
+	 */
+	public int getMaxDepth()
+	{
+		return maxDepth;
+	}
+
+	public long getNanos()
+	{
+		return nanos;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%s of %d: %d comparisons, %d swaps, depth %d, %.3f ms", algorithm, size, getComparisons(), swaps, maxDepth, nanos / 1e6);
+	}
+}
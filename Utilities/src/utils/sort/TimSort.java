@@ -0,0 +1,39 @@
+package utils.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * This Sort class sorts a list of type T stably
+ * <p> using Comparator of type T, by handing it to the JDK.
+ * <p>
+ * It's only a wrapper: the list is copied to an array, sorted by {@link Arrays#sort(Object[], Comparator)},
+ * and written back in one pass through a ListIterator, which is what {@link List#sort(Comparator)} does by default.
+ * The JDK's sort is a TimSort, adaptive to runs already in the list; wrapping it lets it stand in, and be benchmarked,
+ * alongside the other Sorts of this package.
+ * @author Alexander J Paul
+ * @since 18-OCT-2026
+ * @version 1.3
+ * @param <T> - The type specific to the this Sort Class.
+ */
+public class TimSort<T> implements Sort<T>
+{
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(List<T> list, Comparator<T> compareStrategy)
+	{
+		if(list.size() < 2) return;
+
+		Object[] elements = list.toArray();
+		Arrays.sort((T[]) elements, compareStrategy);
+
+		ListIterator<T> iterator = list.listIterator();
+		for(Object element : elements)
+		{
+			iterator.next();
+			iterator.set((T) element);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package utils.Collections;
+
+import java.util.Random;
+
+/**
+ * Builds the same chart in the {@link Table.Layout#FLAT}, {@link Table.Layout#HALF} and {@link Table.Layout#SCALED_SHORT} layouts,
+ * and checks every value of the compact layouts against the FLAT one:
+ * <ul>
+ * <li>HALF within a relative error of 2^-11, or an absolute one of 2^-25 below the smallest normal half, 2^-14,</li>
+ * <li>SCALED_SHORT within an absolute error of 1/131068 of the chart's range plus one float ulp of the value,</li>
+ * <li>untested (NaN) values still NaN, and no tested value turned into one.</li>
+ * </ul>
+ * Needs no test framework: run with {@code java utils.Collections.TableLayoutTest}, which throws an AssertionError on the first failure.
+ *
+ * @author Alexander Paul
+ */
+public class TableLayoutTest {
+
+	private static final int ROWS = 33, COLUMNS = 21;
+
+	public static void main(String[] args) {
+		final Random random = new Random(ROWS * COLUMNS);
+		checkLayouts("Range of 1000", chart(random, 500, 20));
+		//Values large next to their range, where rounding to a float outweighs the scaled step.
+		checkLayouts("Range of 1 around 16000", chart(random, 0.5, 16000));
+	}
+
+	/**
+	 * @param name of the chart, to report.
+	 * @param values of the chart.
+	 * @throws AssertionError if a compact layout strays past its bound, or doesn't keep the NaN values.
+	 */
+	private static void checkLayouts(final String name, final float[][] values) {
+		float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+		for(float[] row : values) {
+			for(float value : row) {
+				if(Float.isNaN(value)) continue;
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+		}
+
+		final Table flat = build(values, Table.Layout.FLAT);
+		final Table half = build(values, Table.Layout.HALF);
+		final Table scaled = build(values, Table.Layout.SCALED_SHORT);
+
+		final double scaledBound = ((double) max - min) / 131068;
+		double halfError = 0, scaledError = 0;
+		int nan = 0;
+
+		for(int row = 0; row < ROWS; row++) {
+			for(int column = 0; column < COLUMNS; column++) {
+				final float expected = flat.getPrecise(row, column);
+				final float halfValue = half.getPrecise(row, column);
+				final float scaledValue = scaled.getPrecise(row, column);
+
+				if(Float.isNaN(expected)) {
+					nan++;
+					check(Float.isNaN(halfValue), "HALF lost the NaN at " + row + ", " + column);
+					check(Float.isNaN(scaledValue), "SCALED_SHORT lost the NaN at " + row + ", " + column);
+					continue;
+				}
+				check(!Float.isNaN(halfValue), "HALF turned " + expected + " at " + row + ", " + column + " into NaN");
+				check(!Float.isNaN(scaledValue), "SCALED_SHORT turned " + expected + " at " + row + ", " + column + " into NaN");
+
+				final double halfDifference = Math.abs((double) halfValue - expected);
+				if(Math.abs(expected) < 0x1p-14f) {
+					check(halfDifference <= 0x1p-25, "HALF stored " + halfValue + " for " + expected);
+				} else {
+					final double relative = halfDifference / Math.abs(expected);
+					check(relative <= 0x1p-11, "HALF stored " + halfValue + " for " + expected + ", a relative error of " + relative);
+					halfError = Math.max(halfError, relative);
+				}
+
+				final double scaledDifference = Math.abs((double) scaledValue - expected);
+				check(scaledDifference <= scaledBound + Math.ulp(expected), "SCALED_SHORT stored " + scaledValue + " for " + expected
+						+ ", an error of " + scaledDifference + " over the bound of " + (scaledBound + Math.ulp(expected)));
+				scaledError = Math.max(scaledError, scaledDifference);
+			}
+		}
+
+		check(nan > 0, "The chart has no untested values to check.");
+		System.out.printf("%s: HALF max relative error %.3g (bound %.3g), SCALED_SHORT max absolute error %.3g (bound %.3g and an ulp), %d NaN kept%n",
+				name, halfError, 0x1p-11, scaledError, scaledBound, nan);
+	}
+
+	/**
+	 * @return {@code amplitude sin(row / 5) cos(column / 4) + offset}, with about one value in 33 untested.
+	 */
+	private static float[][] chart(final Random random, final double amplitude, final double offset) {
+		final float[][] values = new float[ROWS][COLUMNS];
+		for(int row = 0; row < ROWS; row++) {
+			for(int column = 0; column < COLUMNS; column++) {
+				values[row][column] = random.nextInt(33) == 0 ? Float.NaN : (float) (amplitude * Math.sin(row / 5.0) * Math.cos(column / 4.0) + offset);
+			}
+		}
+		return values;
+	}
+
+	private static Table build(final float[][] values, final Table.Layout layout) {
+		return Table.builder().withData(values).withLayout(layout)
+				.rowMin(0).rowMax(ROWS - 1).rowInterval(1).columnMin(0).columnMax(COLUMNS - 1).columnInterval(1).build();
+	}
+
+	private static void check(final boolean condition, final String message) {
+		if(!condition) throw new AssertionError(message);
+	}
+
+}